@@ -0,0 +1,20 @@
+package com.sliit.goldenpalmresort.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Blackbird with the application ObjectMapper (Spring Boot picks up every Module bean).
+ * Blackbird replaces reflective getter/constructor calls with LambdaMetafactory-generated
+ * accessors, which mostly pays off on the typed response records of the list endpoints.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -1,7 +1,13 @@
 package com.sliit.goldenpalmresort.config;
 
 import com.sliit.goldenpalmresort.service.CustomUserDetailsService;
+import com.sliit.goldenpalmresort.model.User;
 import com.sliit.goldenpalmresort.service.JwtService;
+import com.sliit.goldenpalmresort.service.TokenPrincipal;
+import com.sliit.goldenpalmresort.service.TokenVersions;
+import com.sliit.goldenpalmresort.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -29,28 +36,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtService.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.warn("JWT token is invalid: " + e.getMessage());
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            // Repeat requests with the same token skip verification and the user lookup
+            UserDetails userDetails = tokenCache.get(jwt);
+            if (userDetails == null) {
+                try {
+                    Claims claims = jwtService.parseVerified(jwt);
+                    userDetails = jwtService.principalFrom(claims);
+                    if (userDetails == null) {
+                        // Token issued before principal claims: fall back to the user document
+                        userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+                    }
+                    tokenCache.put(jwt, userDetails, claims.getExpiration().getTime());
+                } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+                    logger.warn("JWT token is invalid: " + e.getMessage());
+                }
             }
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if (userDetails != null && !isCurrent(userDetails)) {
+                logger.debug("Rejected revoked token of " + userDetails.getUsername());
+                userDetails = null;
+            }
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -59,4 +81,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Checked on every request, cached or not, so revocations apply immediately
+    private boolean isCurrent(UserDetails userDetails) {
+        if (userDetails instanceof TokenPrincipal principal) {
+            return tokenVersions.isCurrent(principal.id(), principal.tokenVersion());
+        }
+        if (userDetails instanceof User user) {
+            // Older tokens carry no version and count as version 0
+            return tokenVersions.isCurrent(user.getId(), 0);
+        }
+        return true;
+    }
 }
\ No newline at end of file
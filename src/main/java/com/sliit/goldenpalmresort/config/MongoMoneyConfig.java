@@ -0,0 +1,44 @@
+package com.sliit.goldenpalmresort.config;
+
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Stores every BigDecimal (all money fields) as Decimal128 instead of Spring Data's default string,
+ * so Mongo can $sum, range-filter and index them numerically. Query parameters go through the same
+ * converter, which keeps repository range queries such as findByAmountBetween numeric.
+ */
+@Configuration
+public class MongoMoneyConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+                new BigDecimalToDecimal128Converter(),
+                new Decimal128ToBigDecimalConverter()));
+    }
+
+    @WritingConverter
+    static class BigDecimalToDecimal128Converter implements Converter<BigDecimal, Decimal128> {
+        @Override
+        public Decimal128 convert(BigDecimal source) {
+            return new Decimal128(source);
+        }
+    }
+
+    @ReadingConverter
+    static class Decimal128ToBigDecimalConverter implements Converter<Decimal128, BigDecimal> {
+        @Override
+        public BigDecimal convert(Decimal128 source) {
+            return source.bigDecimalValue();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sliit.goldenpalmresort.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.List;
+
+/**
+ * Requests that never need an identity: static pages and assets, and anonymous GET/HEAD reads
+ * of the room, event-space and photo catalog. SecurityConfig gives these a filter chain with
+ * no token parsing, user loading or security context.
+ *
+ * Matching is plain string work on the servlet path, since it runs for every request.
+ */
+public class PublicRequestClassifier implements RequestMatcher {
+
+    private static final List<String> STATIC_PREFIXES = List.of("/js/", "/css/", "/images/");
+
+    private static final List<String> CATALOG_ROOTS = List.of("/api/rooms", "/api/event-spaces", "/api/photos");
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        String path = path(request);
+        return isStatic(path) || isCatalogRead(path);
+    }
+
+    static boolean isStatic(String path) {
+        if (path.equals("/") || path.equals("/favicon.ico")) {
+            return true;
+        }
+        // Top-level pages only, e.g. /index.html
+        if (path.endsWith(".html") && path.indexOf('/', 1) < 0) {
+            return true;
+        }
+        for (String prefix : STATIC_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isCatalogRead(String path) {
+        for (String root : CATALOG_ROOTS) {
+            if (path.startsWith(root) && (path.length() == root.length() || path.charAt(root.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String path(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path += request.getPathInfo();
+        }
+        return path.isEmpty() ? "/" : path;
+    }
+}
@@ -3,6 +3,7 @@ package com.sliit.goldenpalmresort.controller;
 import com.sliit.goldenpalmresort.dto.RegisterRequest;
 import com.sliit.goldenpalmresort.dto.RoomUpdateRequest;
 import com.sliit.goldenpalmresort.dto.EventSpaceUpdateRequest;
+import com.sliit.goldenpalmresort.dto.RecentBookingRow;
 import com.sliit.goldenpalmresort.model.Booking;
 import com.sliit.goldenpalmresort.model.EventSpace;
 import com.sliit.goldenpalmresort.model.EventBooking;
@@ -15,7 +16,21 @@ import com.sliit.goldenpalmresort.repository.RoomRepository;
 import com.sliit.goldenpalmresort.repository.UserRepository;
 import com.sliit.goldenpalmresort.repository.PaymentRepository;
 import com.sliit.goldenpalmresort.service.AuthService;
+import com.sliit.goldenpalmresort.service.EventSpaceScheduleIndex;
+import com.sliit.goldenpalmresort.service.FieldProjection;
+import com.sliit.goldenpalmresort.service.KeysetPager;
+import com.sliit.goldenpalmresort.service.NightClaimService;
+import com.sliit.goldenpalmresort.service.PasswordHashing;
+import com.sliit.goldenpalmresort.service.PhotoByteCache;
+import com.sliit.goldenpalmresort.service.RelationHydrator;
+import com.sliit.goldenpalmresort.service.ResponseWriters;
+import com.sliit.goldenpalmresort.service.RevenueRollupService;
+import com.sliit.goldenpalmresort.service.RoomAvailabilityIndex;
+import com.sliit.goldenpalmresort.service.StatusCounters;
+import com.sliit.goldenpalmresort.service.TokenVersions;
+import com.sliit.goldenpalmresort.service.UserDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -59,12 +74,62 @@ public class AdminController {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private EventSpaceScheduleIndex scheduleIndex;
+
+    @Autowired
+    private NightClaimService nightClaims;
+
+    @Autowired
+    private RevenueRollupService revenueRollup;
+
+    @Autowired
+    private StatusCounters statusCounters;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private RelationHydrator relationHydrator;
+
+    @Autowired
+    private ResponseWriters responseWriters;
+
+    @Autowired
+    private PhotoByteCache photoByteCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private PasswordHashing passwordHashing;
+
     // Get all users
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<?>> getAllUsers(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String role,
+                                               @RequestParam(required = false) String fields) {
         try {
-            List<User> users = userRepository.findAll();
-            return ResponseEntity.ok(users);
+            Criteria filter = role != null ? Criteria.where("role").is(User.UserRole.valueOf(role.toUpperCase())) : null;
+            FieldProjection.Selection selection = fieldProjection.select(User.class, fields);
+            KeysetPager.Page<User> page = keysetPager.page(User.class, filter, cursor, limit,
+                    user -> new KeysetPager.Key(user.getCreatedAt(), user.getId()), selection);
+            if (selection != null) {
+                return KeysetPager.ok(page).body(page.items().stream().map(selection::pick).toList());
+            }
+            return KeysetPager.ok(page).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -139,7 +204,10 @@ public class AdminController {
 
                     User user = userOpt.get();
                     user.setRole(User.UserRole.valueOf(newRole));
-                    user = userRepository.save(user);
+                    userRepository.saveProfile(user);
+                    userDirectory.invalidate(user);
+                    // Tokens carry the role, so the old ones must go
+                    tokenVersions.revoke(user);
                     
                     return ResponseEntity.ok(user);
                 } catch (Exception e) {
@@ -158,6 +226,10 @@ public class AdminController {
                     }
 
                     User user = userOpt.get();
+                    String previousUsername = user.getUsername();
+                    User.UserRole previousRole = user.getRole();
+                    boolean wasActive = user.isActive();
+                    boolean passwordChanged = false;
                     
                     // Update basic fields
                     if (userData.containsKey("firstName")) {
@@ -187,9 +259,16 @@ public class AdminController {
                         !((String) userData.get("password")).trim().isEmpty()) {
                         String password = (String) userData.get("password");
                         user.setPassword(passwordEncoder.encode(password));
+                        passwordChanged = true;
                     }
                     
-                    user = userRepository.save(user);
+                    userRepository.saveProfile(user);
+                    userDirectory.invalidate(user);
+                    // Revoke issued tokens when what they assert (name, role, active account) changed
+                    if (passwordChanged || user.getRole() != previousRole || (wasActive && !user.isActive())
+                            || !java.util.Objects.equals(previousUsername, user.getUsername())) {
+                        tokenVersions.revoke(user);
+                    }
                     
                     return ResponseEntity.ok(Map.of("message", "User updated successfully"));
                 } catch (Exception e) {
@@ -209,6 +288,8 @@ public class AdminController {
 
                     User user = userOpt.get();
                     userRepository.delete(user);
+                    userDirectory.invalidate(user);
+                    tokenVersions.revokeDeleted(user.getId());
                     
                     return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
                 } catch (Exception e) {
@@ -257,59 +338,44 @@ public class AdminController {
         }
     }
 
-    // Get recent bookings
-    @GetMapping("/recent-bookings")
-    public ResponseEntity<List<Map<String, Object>>> getRecentBookings() {
-        try {
-            List<Map<String, Object>> roomBookings = bookingRepository.findAll().stream()
-                    .map(booking -> {
-                        Map<String, Object> m = new HashMap<>();
-                        m.put("bookingReference", booking.getBookingReference());
-                        m.put("guestName", booking.getUser().getFirstName() + " " + booking.getUser().getLastName());
-                        m.put("type", "Room");
-                        m.put("checkInDate", booking.getCheckInDate().toString());
-                        m.put("checkOutDate", booking.getCheckOutDate().toString());
-                        m.put("status", booking.getStatus().name());
-                        m.put("totalAmount", booking.getTotalAmount());
-                        m.put("createdAt", booking.getCreatedAt());
-                        return m;
-                    })
-                    .toList();
+    // Off-heap photo cache: hit ratio, evictions and resident bytes
+    @GetMapping("/photo-cache")
+    public ResponseEntity<Map<String, Object>> getPhotoCacheStats() {
+        return ResponseEntity.ok(photoByteCache.stats());
+    }
 
-            List<Map<String, Object>> eventBookings = eventBookingRepository.findAll().stream()
-                    .map(ev -> {
-                        Map<String, Object> m = new HashMap<>();
-                        m.put("bookingReference", ev.getBookingReference());
-                        m.put("guestName", ev.getUser().getFirstName() + " " + ev.getUser().getLastName());
-                        m.put("type", "Event");
-                        m.put("checkInDate", ev.getEventDate().toString());
-                        m.put("checkOutDate", ev.getEventDate().toString());
-                        m.put("status", ev.getStatus().name());
-                        m.put("totalAmount", ev.getTotalAmount());
-                        m.put("createdAt", ev.getCreatedAt());
-                        return m;
-                    })
-                    .toList();
+    // Cached user lookups: entries, hits and misses
+    @GetMapping("/user-directory")
+    public ResponseEntity<Map<String, Object>> getUserDirectoryStats() {
+        return ResponseEntity.ok(userDirectory.stats());
+    }
 
-            List<Map<String, Object>> combined = new ArrayList<>();
-            combined.addAll(roomBookings);
-            combined.addAll(eventBookings);
+    // Password hashing pool: queue depth, active workers and rejections
+    @GetMapping("/auth-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashing.stats());
+    }
 
-            combined.sort((a,b) -> {
-                java.time.LocalDateTime ca = (java.time.LocalDateTime) a.get("createdAt");
-                java.time.LocalDateTime cb = (java.time.LocalDateTime) b.get("createdAt");
-                if (ca == null && cb == null) return 0;
-                if (ca == null) return 1;
-                if (cb == null) return -1;
-                return cb.compareTo(ca);
-            });
+    // Get recent bookings
+    @GetMapping("/recent-bookings")
+    public ResponseEntity<byte[]> getRecentBookings() {
+        try {
+            // Five newest across room and event bookings, read straight off the created_keyset index
+            KeysetPager.Page<Object> page = keysetPager.pageAcross(null, 5, List.of(
+                    new KeysetPager.Source<>(Booking.class, null, b -> new KeysetPager.Key(b.getCreatedAt(), b.getId())),
+                    new KeysetPager.Source<>(EventBooking.class, null, ev -> new KeysetPager.Key(ev.getCreatedAt(), ev.getId()))));
+            RelationHydrator.Relations relations = relationHydrator.hydrate(page.items());
 
-            List<Map<String, Object>> top5 = combined.stream().limit(5).map(m -> {
-                m.remove("createdAt");
-                return m;
-            }).toList();
+            List<RecentBookingRow> top5 = new ArrayList<>();
+            for (Object item : page.items()) {
+                if (item instanceof Booking booking) {
+                    top5.add(RecentBookingRow.of(booking, relations.user(booking.getUserId())));
+                } else if (item instanceof EventBooking ev) {
+                    top5.add(RecentBookingRow.of(ev, relations.user(ev.getUserId())));
+                }
+            }
 
-            return ResponseEntity.ok(top5);
+            return responseWriters.okList(top5, RecentBookingRow.class);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -317,13 +383,49 @@ public class AdminController {
 
     // Get all bookings
     @GetMapping("/bookings")
-    public ResponseEntity<List<Map<String, Object>>> getAllBookings() {
+    public ResponseEntity<List<Map<String, Object>>> getAllBookings(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String status,
+                                                                    @RequestParam(required = false) String fields) {
         try {
-            List<Map<String, Object>> roomBookings = bookingRepository.findAll().stream()
+            // One keyset page across room and event bookings, newest first
+            // Room and event bookings have different status enums; each type is filtered on its own
+            Booking.BookingStatus roomStatus = KeysetPager.statusOf(Booking.BookingStatus.class, status);
+            EventBooking.EventBookingStatus eventStatus = KeysetPager.statusOf(EventBooking.EventBookingStatus.class, status);
+            if (status != null && roomStatus == null && eventStatus == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            Map<Class<?>, FieldProjection.Selection> selections = fieldProjection.selectAcross(fields, List.of(Booking.class, EventBooking.class));
+            List<KeysetPager.Source<?>> sources = new ArrayList<>();
+            if (status == null || roomStatus != null) {
+                sources.add(new KeysetPager.Source<>(Booking.class, roomStatus != null ? Criteria.where("status").is(roomStatus) : null,
+                        b -> new KeysetPager.Key(b.getCreatedAt(), b.getId()), selections.get(Booking.class)));
+            }
+            if (status == null || eventStatus != null) {
+                sources.add(new KeysetPager.Source<>(EventBooking.class, eventStatus != null ? Criteria.where("status").is(eventStatus) : null,
+                        ev -> new KeysetPager.Key(ev.getCreatedAt(), ev.getId()), selections.get(EventBooking.class)));
+            }
+            KeysetPager.Page<Object> page = keysetPager.pageAcross(cursor, limit, sources);
+
+            // Only the requested fields were read, so return them as-is
+            if (!selections.isEmpty()) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (Object item : page.items()) {
+                    Map<String, Object> row = selections.get(item.getClass()).pick(item);
+                    row.put("type", item instanceof Booking ? "Room" : "Event");
+                    rows.add(row);
+                }
+                return KeysetPager.ok(page).body(rows);
+            }
+            RelationHydrator.Relations relations = relationHydrator.hydrate(page.items());
+
+            List<Map<String, Object>> roomBookings = page.items().stream()
+                    .filter(Booking.class::isInstance)
+                    .map(Booking.class::cast)
                     .map(booking -> {
                         Map<String, Object> m = new HashMap<>();
                         m.put("bookingReference", booking.getBookingReference());
-                        m.put("guestName", booking.getUser().getFirstName() + " " + booking.getUser().getLastName());
+                        m.put("guestName", guestName(relations.user(booking.getUserId())));
                         m.put("type", "Room");
                         m.put("checkInDate", booking.getCheckInDate().toString());
                         m.put("checkOutDate", booking.getCheckOutDate().toString());
@@ -334,11 +436,13 @@ public class AdminController {
                     })
                     .toList();
 
-            List<Map<String, Object>> eventBookings = eventBookingRepository.findAll().stream()
+            List<Map<String, Object>> eventBookings = page.items().stream()
+                    .filter(EventBooking.class::isInstance)
+                    .map(EventBooking.class::cast)
                     .map(ev -> {
                         Map<String, Object> m = new HashMap<>();
                         m.put("bookingReference", ev.getBookingReference());
-                        m.put("guestName", ev.getUser().getFirstName() + " " + ev.getUser().getLastName());
+                        m.put("guestName", guestName(relations.user(ev.getUserId())));
                         m.put("type", "Event");
                         m.put("checkInDate", ev.getEventDate().toString());
                         m.put("checkOutDate", ev.getEventDate().toString());
@@ -368,7 +472,9 @@ public class AdminController {
                 return m;
             }).toList();
 
-            return ResponseEntity.ok(response);
+            return KeysetPager.ok(page).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -390,6 +496,7 @@ public class AdminController {
                     List<com.sliit.goldenpalmresort.model.Payment> payments = paymentRepository.findByEventBookingId(ev.getId());
                     if (!payments.isEmpty()) paymentRepository.deleteAll(payments);
                     eventBookingRepository.delete(ev);
+                    scheduleIndex.remove(ev.getId());
                     return ResponseEntity.ok(Map.of("message", "Event booking deleted successfully"));
                 }
                 return ResponseEntity.badRequest().body(Map.of("message", "Booking not found"));
@@ -400,6 +507,8 @@ public class AdminController {
                     List<com.sliit.goldenpalmresort.model.Payment> payments = paymentRepository.findByBookingId(booking.getId());
                     if (!payments.isEmpty()) paymentRepository.deleteAll(payments);
                     bookingRepository.delete(booking);
+                    availabilityIndex.release(booking.getId());
+                    nightClaims.release(booking.getBookingReference());
                     return ResponseEntity.ok(Map.of("message", "Booking deleted successfully"));
                 }
                 return ResponseEntity.badRequest().body(Map.of("message", "Booking not found"));
@@ -414,6 +523,8 @@ public class AdminController {
                     paymentRepository.deleteAll(payments);
                 }
                 bookingRepository.delete(booking);
+                availabilityIndex.release(booking.getId());
+                nightClaims.release(booking.getBookingReference());
                 return ResponseEntity.ok(Map.of("message", "Booking deleted successfully"));
             }
 
@@ -426,6 +537,7 @@ public class AdminController {
                     paymentRepository.deleteAll(payments);
                 }
                 eventBookingRepository.delete(ev);
+                scheduleIndex.remove(ev.getId());
                 return ResponseEntity.ok(Map.of("message", "Event booking deleted successfully"));
             }
 
@@ -479,6 +591,7 @@ public class AdminController {
             room.setActive(true);
 
             room = roomRepository.save(room);
+            availabilityIndex.refreshRoom(room);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Error creating room: " + e.getMessage()));
@@ -559,6 +672,7 @@ public class AdminController {
             }
             
             room = roomRepository.save(room);
+            availabilityIndex.refreshRoom(room);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Error updating room: " + e.getMessage()));
@@ -607,6 +721,7 @@ public class AdminController {
             System.out.println("Room found: " + room.getRoomNumber());
             room.setActive(false);
             roomRepository.save(room);
+            availabilityIndex.refreshRoom(room);
             System.out.println("Room deleted successfully");
             return ResponseEntity.ok(Map.of("message", "Room deleted successfully"));
         } catch (Exception e) {
@@ -649,6 +764,14 @@ public class AdminController {
             
             int periodsToShow = 7; // Default for monthly view
             
+            // One read of the daily rollup covers every bar in the chart
+            LocalDate rangeStart = switch (period.toLowerCase()) {
+                case "week" -> now.minusDays(6);
+                case "year" -> now.minusMonths(11).withDayOfMonth(1);
+                default -> now.minusMonths(6).withDayOfMonth(1);
+            };
+            Map<LocalDate, BigDecimal> dailyRevenueByDate = revenueRollup.completedByDay(rangeStart, now);
+            
             switch (period.toLowerCase()) {
                 case "week":
                     // Last 7 days
@@ -657,15 +780,7 @@ public class AdminController {
                         LocalDate day = now.minusDays(i);
                         labels.add(day.format(java.time.format.DateTimeFormatter.ofPattern("EEE")));
                         
-                        LocalDateTime dayStart = day.atStartOfDay();
-                        LocalDateTime dayEnd = day.atTime(23, 59, 59);
-                        
-                        double dailyRevenue = paymentRepository.findAll().stream()
-                            .filter(p -> p.getPaymentStatus() == com.sliit.goldenpalmresort.model.Payment.PaymentStatus.COMPLETED)
-                            .filter(p -> p.getPaymentDate() != null)
-                            .filter(p -> !p.getPaymentDate().isBefore(dayStart) && !p.getPaymentDate().isAfter(dayEnd))
-                            .mapToDouble(p -> p.getAmount().doubleValue())
-                            .sum();
+                        double dailyRevenue = dailyRevenueByDate.getOrDefault(day, BigDecimal.ZERO).doubleValue();
                         
                         revenues.add(Math.round(dailyRevenue * 100.0) / 100.0);
                     }
@@ -680,15 +795,8 @@ public class AdminController {
                         
                         LocalDate monthStart = month.withDayOfMonth(1);
                         LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
-                        LocalDateTime startDateTime = monthStart.atStartOfDay();
-                        LocalDateTime endDateTime = monthEnd.atTime(23, 59, 59);
                         
-                        double monthlyRevenue = paymentRepository.findAll().stream()
-                            .filter(p -> p.getPaymentStatus() == com.sliit.goldenpalmresort.model.Payment.PaymentStatus.COMPLETED)
-                            .filter(p -> p.getPaymentDate() != null)
-                            .filter(p -> !p.getPaymentDate().isBefore(startDateTime) && !p.getPaymentDate().isAfter(endDateTime))
-                            .mapToDouble(p -> p.getAmount().doubleValue())
-                            .sum();
+                        double monthlyRevenue = sumRevenue(dailyRevenueByDate, monthStart, monthEnd);
                         
                         revenues.add(Math.round(monthlyRevenue * 100.0) / 100.0);
                     }
@@ -702,15 +810,8 @@ public class AdminController {
                         
                         LocalDate monthStart = month.withDayOfMonth(1);
                         LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
-                        LocalDateTime startDateTime = monthStart.atStartOfDay();
-                        LocalDateTime endDateTime = monthEnd.atTime(23, 59, 59);
                         
-                        double monthlyRevenue = paymentRepository.findAll().stream()
-                            .filter(p -> p.getPaymentStatus() == com.sliit.goldenpalmresort.model.Payment.PaymentStatus.COMPLETED)
-                            .filter(p -> p.getPaymentDate() != null)
-                            .filter(p -> !p.getPaymentDate().isBefore(startDateTime) && !p.getPaymentDate().isAfter(endDateTime))
-                            .mapToDouble(p -> p.getAmount().doubleValue())
-                            .sum();
+                        double monthlyRevenue = sumRevenue(dailyRevenueByDate, monthStart, monthEnd);
                         
                         revenues.add(Math.round(monthlyRevenue * 100.0) / 100.0);
                     }
@@ -752,13 +853,11 @@ public class AdminController {
         try {
             Map<String, Object> roomData = new HashMap<>();
             
-            List<Room> allRooms = roomRepository.findAll();
-            
             // Count rooms by status
-            long availableRooms = allRooms.stream().filter(room -> room.getStatus() == Room.RoomStatus.AVAILABLE).count();
-            long occupiedRooms = allRooms.stream().filter(room -> room.getStatus() == Room.RoomStatus.OCCUPIED).count();
-            long maintenanceRooms = allRooms.stream().filter(room -> room.getStatus() == Room.RoomStatus.MAINTENANCE).count();
-            long outOfOrderRooms = allRooms.stream().filter(room -> room.getStatus() == Room.RoomStatus.BLOCKED).count();
+            long availableRooms = statusCounters.count(StatusCounters.Kind.ROOM, Room.RoomStatus.AVAILABLE);
+            long occupiedRooms = statusCounters.count(StatusCounters.Kind.ROOM, Room.RoomStatus.OCCUPIED);
+            long maintenanceRooms = statusCounters.count(StatusCounters.Kind.ROOM, Room.RoomStatus.MAINTENANCE);
+            long outOfOrderRooms = statusCounters.count(StatusCounters.Kind.ROOM, Room.RoomStatus.BLOCKED);
             
             roomData.put("labels", List.of("Available", "Occupied", "Maintenance", "Out of Order"));
             roomData.put("data", List.of(availableRooms, occupiedRooms, maintenanceRooms, outOfOrderRooms));
@@ -795,7 +894,7 @@ public class AdminController {
             roomData.put("lastWeekOccupancyRate", Math.round(lastWeekOccupancyRate * 100.0) / 100.0);
             
             // Add total room count
-            roomData.put("totalRooms", allRooms.size());
+            roomData.put("totalRooms", statusCounters.total(StatusCounters.Kind.ROOM));
             
             return ResponseEntity.ok(roomData);
         } catch (Exception e) {
@@ -826,19 +925,17 @@ public class AdminController {
         try {
             Map<String, Object> userData = new HashMap<>();
             
-            List<User> allUsers = userRepository.findAll();
-            
             // Count users by role (no STAFF enum; use FRONT_DESK and PAYMENT_OFFICER)
-            long guests = allUsers.stream().filter(user -> user.getRole() == User.UserRole.GUEST).count();
-            long frontDesk = allUsers.stream().filter(user -> user.getRole() == User.UserRole.FRONT_DESK).count();
-            long paymentOfficers = allUsers.stream().filter(user -> user.getRole() == User.UserRole.PAYMENT_OFFICER).count();
-            long managers = allUsers.stream().filter(user -> user.getRole() == User.UserRole.MANAGER).count();
-            long admins = allUsers.stream().filter(user -> user.getRole() == User.UserRole.ADMIN).count();
+            long guests = statusCounters.count(StatusCounters.Kind.USER, User.UserRole.GUEST);
+            long frontDesk = statusCounters.count(StatusCounters.Kind.USER, User.UserRole.FRONT_DESK);
+            long paymentOfficers = statusCounters.count(StatusCounters.Kind.USER, User.UserRole.PAYMENT_OFFICER);
+            long managers = statusCounters.count(StatusCounters.Kind.USER, User.UserRole.MANAGER);
+            long admins = statusCounters.count(StatusCounters.Kind.USER, User.UserRole.ADMIN);
             
             userData.put("labels", List.of("Guests", "Front Desk", "Payment Officers", "Managers", "Admins"));
             userData.put("data", List.of(guests, frontDesk, paymentOfficers, managers, admins));
             userData.put("colors", List.of("#e53e3e", "#3182ce", "#38a169", "#d69e2e", "#3182ce"));
-            userData.put("totalUsers", allUsers.size());
+            userData.put("totalUsers", statusCounters.total(StatusCounters.Kind.USER));
             
             return ResponseEntity.ok(userData);
         } catch (Exception e) {
@@ -852,19 +949,17 @@ public class AdminController {
         try {
             Map<String, Object> bookingData = new HashMap<>();
             
-            List<Booking> allBookings = bookingRepository.findAll();
-            
             // Count bookings by status
-            long confirmed = allBookings.stream().filter(booking -> booking.getStatus() == Booking.BookingStatus.CONFIRMED).count();
-            long pending = allBookings.stream().filter(booking -> booking.getStatus() == Booking.BookingStatus.PENDING).count();
-            long checkedIn = allBookings.stream().filter(booking -> booking.getStatus() == Booking.BookingStatus.CHECKED_IN).count();
-            long checkedOut = allBookings.stream().filter(booking -> booking.getStatus() == Booking.BookingStatus.CHECKED_OUT).count();
-            long cancelled = allBookings.stream().filter(booking -> booking.getStatus() == Booking.BookingStatus.CANCELLED).count();
+            long confirmed = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.CONFIRMED);
+            long pending = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.PENDING);
+            long checkedIn = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.CHECKED_IN);
+            long checkedOut = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.CHECKED_OUT);
+            long cancelled = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.CANCELLED);
             
             bookingData.put("labels", List.of("Confirmed", "Pending", "Checked In", "Checked Out", "Cancelled"));
             bookingData.put("data", List.of(confirmed, pending, checkedIn, checkedOut, cancelled));
             bookingData.put("colors", List.of("#38a169", "#d69e2e", "#3b82f6", "#718096", "#e53e3e"));
-            bookingData.put("totalBookings", allBookings.size());
+            bookingData.put("totalBookings", statusCounters.total(StatusCounters.Kind.BOOKING));
             bookingData.put("currentGuests", checkedIn); // Add current guests count
             
             return ResponseEntity.ok(bookingData);
@@ -908,15 +1003,31 @@ public class AdminController {
         }
     }
 
-    // Helper method to calculate monthly revenue from payments
+    // Rebuild the revenue_daily rollup from the payments collection
+    @PostMapping("/analytics/revenue/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRevenueRollup() {
+        try {
+            int buckets = revenueRollup.rebuild();
+            return ResponseEntity.ok(Map.of("message", "Revenue rollup rebuilt", "buckets", buckets));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("message", "Error rebuilding revenue rollup: " + e.getMessage()));
+        }
+    }
+
+    // Helper method to calculate monthly revenue from the daily rollup
     private BigDecimal calculateMonthlyRevenue() {
-        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-        LocalDateTime startOfMonthDateTime = startOfMonth.atStartOfDay();
-        
-        return paymentRepository.findAll().stream()
-            .filter(payment -> payment.getPaymentStatus() == com.sliit.goldenpalmresort.model.Payment.PaymentStatus.COMPLETED)
-            .filter(payment -> payment.getPaymentDate() != null && payment.getPaymentDate().isAfter(startOfMonthDateTime))
-            .map(payment -> payment.getAmount())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate today = LocalDate.now();
+        return revenueRollup.completedBetween(today.withDayOfMonth(1), today);
+    }
+
+    private double sumRevenue(Map<LocalDate, BigDecimal> dailyRevenueByDate, LocalDate from, LocalDate to) {
+        return dailyRevenueByDate.entrySet().stream()
+            .filter(entry -> !entry.getKey().isBefore(from) && !entry.getKey().isAfter(to))
+            .mapToDouble(entry -> entry.getValue().doubleValue())
+            .sum();
+    }
+
+    private String guestName(User user) {
+        return user != null ? user.getFirstName() + " " + user.getLastName() : "Unknown Guest";
     }
 } 
\ No newline at end of file
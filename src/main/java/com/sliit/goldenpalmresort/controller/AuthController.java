@@ -4,16 +4,23 @@ import com.sliit.goldenpalmresort.dto.LoginRequest;
 import com.sliit.goldenpalmresort.dto.LoginResponse;
 import com.sliit.goldenpalmresort.model.User;
 import com.sliit.goldenpalmresort.repository.UserRepository;
+import com.sliit.goldenpalmresort.exception.ServerBusyException;
 import com.sliit.goldenpalmresort.service.JwtService;
+import com.sliit.goldenpalmresort.service.LoginThrottle;
+import com.sliit.goldenpalmresort.service.PasswordHashing;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -31,49 +38,87 @@ public class AuthController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private PasswordHashing passwordHashing;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    // Password checks run on the bounded hashing pool; the request thread is released meanwhile
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request,
+                                                                  HttpServletRequest httpRequest) {
+        String clientIp = httpRequest.getRemoteAddr();
+        long retryAfter = loginThrottle.tryAcquire(request.getUsername(), clientIp);
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)).build());
+        }
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
-
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtService.generateToken(userDetails.getUsername());
-            User user = userRepository.findByUsername(userDetails.getUsername()).orElse(null);
-            
-            // Update last login time
-            if (user != null) {
-                user.setLastLogin(java.time.LocalDateTime.now());
-                userRepository.save(user);
-            }
+            return passwordHashing.submit(() -> {
+                try {
+                    Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+                    );
 
-            return ResponseEntity.ok(new LoginResponse(token, user, "Login successful", true));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+                    User user = (User) authentication.getPrincipal();
+                    String token = jwtService.generateToken(user);
+                    loginThrottle.succeeded(request.getUsername(), clientIp);
+
+                    // Update last login time; a targeted $set, so a concurrent token revoke is not overwritten
+                    user.setLastLogin(java.time.LocalDateTime.now());
+                    userRepository.updateLastLogin(user.getId(), user.getLastLogin());
+
+                    return ResponseEntity.ok(new LoginResponse(token, user, "Login successful", true));
+                } catch (Exception e) {
+                    return ResponseEntity.badRequest().<LoginResponse>build();
+                }
+            });
+        } catch (ServerBusyException e) {
+            return CompletableFuture.completedFuture(busy(e));
         }
     }
 
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<String>> register(@RequestBody LoginRequest request,
+                                                              HttpServletRequest httpRequest) {
+        long retryAfter = loginThrottle.tryAcquire(null, httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)).build());
+        }
         try {
             if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-                return ResponseEntity.badRequest().body("Username already exists");
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Username already exists"));
             }
 
-            User newUser = new User();
-            newUser.setUsername(request.getUsername());
-            newUser.setPassword(passwordEncoder.encode(request.getPassword()));
-            newUser.setEmail(request.getUsername() + "@example.com"); // Simple email assignment
-            newUser.setFirstName(request.getUsername());
-            newUser.setLastName(request.getUsername()); // Use username as last name instead of hardcoded "User"
-            newUser.setRole(User.UserRole.GUEST);
-            newUser.setActive(true); // Explicitly set user as active
-
-            userRepository.save(newUser);
-            return ResponseEntity.ok("User registered successfully");
+            return passwordHashing.submit(() -> {
+                try {
+                    User newUser = new User();
+                    newUser.setUsername(request.getUsername());
+                    newUser.setPassword(passwordEncoder.encode(request.getPassword()));
+                    newUser.setEmail(request.getUsername() + "@example.com"); // Simple email assignment
+                    newUser.setFirstName(request.getUsername());
+                    newUser.setLastName(request.getUsername()); // Use username as last name instead of hardcoded "User"
+                    newUser.setRole(User.UserRole.GUEST);
+                    newUser.setActive(true); // Explicitly set user as active
+
+                    userRepository.save(newUser);
+                    return ResponseEntity.ok("User registered successfully");
+                } catch (Exception e) {
+                    return ResponseEntity.badRequest().body("Registration failed");
+                }
+            });
+        } catch (ServerBusyException e) {
+            return CompletableFuture.completedFuture(busy(e));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Registration failed");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Registration failed"));
         }
     }
+
+    private static <T> ResponseEntity<T> busy(ServerBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
 }
\ No newline at end of file
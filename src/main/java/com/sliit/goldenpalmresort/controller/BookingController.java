@@ -1,5 +1,6 @@
 package com.sliit.goldenpalmresort.controller;
 
+import com.sliit.goldenpalmresort.dto.AlternativeStayResponse;
 import com.sliit.goldenpalmresort.dto.BookingRequest;
 import com.sliit.goldenpalmresort.dto.BookingResponse;
 import com.sliit.goldenpalmresort.model.Booking.BookingStatus;
@@ -13,6 +14,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
@@ -86,12 +88,21 @@ public class BookingController {
         }
     }
     
+    // With flexDays set, returns the nearest feasible stays per room type instead of rooms for the exact dates
     @GetMapping("/available-rooms")
-    public ResponseEntity<List<Room>> getAvailableRooms(
+    public ResponseEntity<?> getAvailableRooms(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
-            @RequestParam Integer guestCount) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam Integer guestCount,
+            @RequestParam(required = false) Integer flexDays,
+            @RequestParam(required = false) Integer nights) {
         try {
+            if (flexDays != null) {
+                int stayLength = nights != null ? nights : (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+                List<AlternativeStayResponse> alternatives =
+                        bookingService.findAlternativeStays(checkIn, stayLength, flexDays, guestCount);
+                return ResponseEntity.ok(alternatives);
+            }
             List<Room> availableRooms = bookingService.getAvailableRooms(checkIn, checkOut, guestCount);
             return ResponseEntity.ok(availableRooms);
         } catch (Exception e) {
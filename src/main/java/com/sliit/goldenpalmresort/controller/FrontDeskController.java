@@ -1,5 +1,6 @@
 package com.sliit.goldenpalmresort.controller;
 
+import com.sliit.goldenpalmresort.dto.GuestStayRow;
 import com.sliit.goldenpalmresort.model.Booking;
 import com.sliit.goldenpalmresort.model.EventBooking;
 import com.sliit.goldenpalmresort.model.EventSpace;
@@ -11,11 +12,19 @@ import com.sliit.goldenpalmresort.repository.EventBookingRepository;
 import com.sliit.goldenpalmresort.repository.PaymentRepository;
 import com.sliit.goldenpalmresort.repository.RoomRepository;
 import com.sliit.goldenpalmresort.repository.UserRepository;
+import com.sliit.goldenpalmresort.service.EventSpaceScheduleIndex;
+import com.sliit.goldenpalmresort.service.FieldProjection;
+import com.sliit.goldenpalmresort.service.KeysetPager;
+import com.sliit.goldenpalmresort.service.NightClaimService;
+import com.sliit.goldenpalmresort.service.RelationHydrator;
+import com.sliit.goldenpalmresort.service.ResponseWriters;
+import com.sliit.goldenpalmresort.service.RoomAvailabilityIndex;
+import com.sliit.goldenpalmresort.service.StatusCounters;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -44,6 +53,30 @@ public class FrontDeskController {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private EventSpaceScheduleIndex scheduleIndex;
+
+    @Autowired
+    private NightClaimService nightClaims;
+
+    @Autowired
+    private StatusCounters statusCounters;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private RelationHydrator relationHydrator;
+
+    @Autowired
+    private ResponseWriters responseWriters;
+
     // Get front desk statistics
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getStatistics() {
@@ -52,28 +85,20 @@ public class FrontDeskController {
             LocalDate today = LocalDate.now();
 
             // Today's check-ins
-            long todayCheckins = bookingRepository.findAll().stream()
-                    .filter(booking -> booking.getCheckInDate().equals(today) && 
-                                     booking.getStatus() == Booking.BookingStatus.CHECKED_IN)
-                    .count();
+            long todayCheckins = bookingRepository.countByCheckInDateAndStatus(today, Booking.BookingStatus.CHECKED_IN);
             stats.put("todayCheckins", todayCheckins);
 
             // Today's check-outs
-            long todayCheckouts = bookingRepository.findAll().stream()
-                    .filter(booking -> booking.getCheckOutDate().equals(today) && 
-                                     booking.getStatus() == Booking.BookingStatus.CHECKED_OUT)
-                    .count();
+            long todayCheckouts = bookingRepository.countByCheckOutDateAndStatus(today, Booking.BookingStatus.CHECKED_OUT);
             stats.put("todayCheckouts", todayCheckouts);
 
             // Pending bookings
-            long pendingBookings = bookingRepository.findByStatus(Booking.BookingStatus.PENDING).size() +
-                                 eventBookingRepository.findByStatus(EventBooking.EventBookingStatus.PENDING).size();
+            long pendingBookings = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.PENDING) +
+                                 statusCounters.count(StatusCounters.Kind.EVENT_BOOKING, EventBooking.EventBookingStatus.PENDING);
             stats.put("pendingBookings", pendingBookings);
 
             // Current guests (checked in but not checked out)
-            long currentGuests = bookingRepository.findAll().stream()
-                    .filter(booking -> booking.getStatus() == Booking.BookingStatus.CHECKED_IN)
-                    .count();
+            long currentGuests = statusCounters.count(StatusCounters.Kind.BOOKING, Booking.BookingStatus.CHECKED_IN);
             stats.put("currentGuests", currentGuests);
 
             return ResponseEntity.ok(stats);
@@ -87,16 +112,17 @@ public class FrontDeskController {
     public ResponseEntity<List<Map<String, Object>>> getTodayArrivals() {
         try {
             LocalDate today = LocalDate.now();
-            List<Booking> todayBookings = bookingRepository.findAll().stream()
-                    .filter(booking -> booking.getCheckInDate().equals(today))
-                    .toList();
+            List<Booking> todayBookings = bookingRepository.findByCheckInDate(today);
+            RelationHydrator.Relations relations = relationHydrator.hydrate(todayBookings);
 
             List<Map<String, Object>> arrivals = todayBookings.stream()
                     .map(booking -> {
                         Map<String, Object> arrival = new HashMap<>();
                         arrival.put("bookingReference", booking.getBookingReference());
-                        arrival.put("guestName", booking.getUser().getFirstName() + " " + booking.getUser().getLastName());
-                        arrival.put("roomNumber", booking.getRoom().getRoomNumber());
+                        User user = relations.user(booking.getUserId());
+                        Room room = relations.room(booking.getRoomId());
+                        arrival.put("guestName", user != null ? user.getFirstName() + " " + user.getLastName() : "Unknown Guest");
+                        arrival.put("roomNumber", room != null ? room.getRoomNumber() : "Unknown");
                         arrival.put("checkInDate", booking.getCheckInDate().toString());
                         arrival.put("status", booking.getStatus().name());
                         return arrival;
@@ -111,7 +137,7 @@ public class FrontDeskController {
 
     // Get check-ins with improved error handling and validation
     @GetMapping("/checkins")
-    public ResponseEntity<List<Map<String, Object>>> getCheckIns() {
+    public ResponseEntity<byte[]> getCheckIns() {
         try {
             System.out.println("Getting check-ins...");
             
@@ -119,7 +145,10 @@ public class FrontDeskController {
             List<Booking> checkins = bookingRepository.findByStatus(Booking.BookingStatus.CHECKED_IN);
             System.out.println("Found " + checkins.size() + " check-ins");
 
-            List<Map<String, Object>> checkinsData = new ArrayList<>();
+            // Users and rooms for the whole list in one query each
+            RelationHydrator.Relations relations = relationHydrator.hydrate(checkins);
+
+            List<GuestStayRow> checkinsData = new ArrayList<>();
             
             for (Booking booking : checkins) {
                 try {
@@ -129,52 +158,7 @@ public class FrontDeskController {
                         continue;
                     }
                     
-                    Map<String, Object> checkin = new HashMap<>();
-                    checkin.put("bookingReference", booking.getBookingReference());
-                    
-                    // Safely access user data with validation
-                    User user = booking.getUser();
-                    if (user != null && user.getFirstName() != null && user.getLastName() != null) {
-                        checkin.put("guestName", user.getFirstName() + " " + user.getLastName());
-                        checkin.put("guestEmail", user.getEmail() != null ? user.getEmail() : "");
-                        checkin.put("guestPhone", user.getPhone() != null ? user.getPhone() : "");
-                    } else {
-                        checkin.put("guestName", "Unknown Guest");
-                        checkin.put("guestEmail", "");
-                        checkin.put("guestPhone", "");
-                    }
-                    
-                    // Safely access room data with validation
-                    Room room = booking.getRoom();
-                    if (room != null && room.getRoomNumber() != null) {
-                        checkin.put("roomNumber", room.getRoomNumber());
-                        checkin.put("roomType", room.getRoomType() != null ? room.getRoomType() : "");
-                        checkin.put("floorNumber", room.getFloorNumber() != null ? room.getFloorNumber() : "");
-                    } else {
-                        checkin.put("roomNumber", "Unknown");
-                        checkin.put("roomType", "");
-                        checkin.put("floorNumber", "");
-                    }
-                    
-                    // Add comprehensive booking data
-                    checkin.put("checkInDate", booking.getCheckInDate() != null ? booking.getCheckInDate().toString() : "");
-                    checkin.put("checkOutDate", booking.getCheckOutDate() != null ? booking.getCheckOutDate().toString() : "");
-                    checkin.put("guestCount", booking.getGuestCount() != null ? booking.getGuestCount() : 0);
-                    checkin.put("totalAmount", booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO);
-                    checkin.put("specialRequests", booking.getSpecialRequests() != null ? booking.getSpecialRequests() : "");
-                    checkin.put("status", booking.getStatus() != null ? booking.getStatus().name() : "UNKNOWN");
-                    checkin.put("createdAt", booking.getCreatedAt() != null ? booking.getCreatedAt().toString() : "");
-                    checkin.put("updatedAt", booking.getUpdatedAt() != null ? booking.getUpdatedAt().toString() : "");
-                    
-                    // Calculate stay duration
-                    if (booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
-                        long days = java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
-                        checkin.put("stayDuration", days);
-                    } else {
-                        checkin.put("stayDuration", 0);
-                    }
-                    
-                    checkinsData.add(checkin);
+                    checkinsData.add(GuestStayRow.of(booking, relations.user(booking.getUserId()), relations.room(booking.getRoomId()), false));
                 } catch (Exception e) {
                     System.err.println("Error processing check-in booking " + (booking != null ? booking.getBookingReference() : "null") + ": " + e.getMessage());
                     e.printStackTrace();
@@ -182,17 +166,17 @@ public class FrontDeskController {
             }
 
             System.out.println("Successfully processed " + checkinsData.size() + " check-ins");
-            return ResponseEntity.ok(checkinsData);
+            return responseWriters.okList(checkinsData, GuestStayRow.class);
         } catch (Exception e) {
             System.err.println("Error in getCheckIns: " + e.getMessage());
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body(List.of());
+            return ResponseEntity.internalServerError().build();
         }
     }
 
     // Get check-outs with improved error handling and validation
     @GetMapping("/checkouts")
-    public ResponseEntity<List<Map<String, Object>>> getCheckOuts() {
+    public ResponseEntity<byte[]> getCheckOuts() {
         try {
             System.out.println("Getting check-outs...");
             
@@ -200,7 +184,10 @@ public class FrontDeskController {
             List<Booking> checkouts = bookingRepository.findByStatus(Booking.BookingStatus.CHECKED_OUT);
             System.out.println("Found " + checkouts.size() + " check-outs");
 
-            List<Map<String, Object>> checkoutsData = new ArrayList<>();
+            // Users and rooms for the whole list in one query each
+            RelationHydrator.Relations relations = relationHydrator.hydrate(checkouts);
+
+            List<GuestStayRow> checkoutsData = new ArrayList<>();
             
             for (Booking booking : checkouts) {
                 try {
@@ -210,52 +197,7 @@ public class FrontDeskController {
                         continue;
                     }
                     
-                    Map<String, Object> checkout = new HashMap<>();
-                    checkout.put("bookingReference", booking.getBookingReference());
-                    
-                    // Safely access user data with validation
-                    User user = booking.getUser();
-                    if (user != null && user.getFirstName() != null && user.getLastName() != null) {
-                        checkout.put("guestName", user.getFirstName() + " " + user.getLastName());
-                        checkout.put("guestEmail", user.getEmail() != null ? user.getEmail() : "");
-                        checkout.put("guestPhone", user.getPhone() != null ? user.getPhone() : "");
-                    } else {
-                        checkout.put("guestName", "Unknown Guest");
-                        checkout.put("guestEmail", "");
-                        checkout.put("guestPhone", "");
-                    }
-                    
-                    // Safely access room data with validation
-                    Room room = booking.getRoom();
-                    if (room != null && room.getRoomNumber() != null) {
-                        checkout.put("roomNumber", room.getRoomNumber());
-                        checkout.put("roomType", room.getRoomType() != null ? room.getRoomType() : "");
-                        checkout.put("floorNumber", room.getFloorNumber() != null ? room.getFloorNumber() : "");
-                    } else {
-                        checkout.put("roomNumber", "Unknown");
-                        checkout.put("roomType", "");
-                        checkout.put("floorNumber", "");
-                    }
-                    
-                    // Add comprehensive booking data
-                    checkout.put("checkInDate", booking.getCheckInDate() != null ? booking.getCheckInDate().toString() : "");
-                    checkout.put("checkOutDate", booking.getCheckOutDate() != null ? booking.getCheckOutDate().toString() : "");
-                    checkout.put("guestCount", booking.getGuestCount() != null ? booking.getGuestCount() : 0);
-                    checkout.put("totalAmount", booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO);
-                    checkout.put("specialRequests", booking.getSpecialRequests() != null ? booking.getSpecialRequests() : "");
-                    checkout.put("status", booking.getStatus() != null ? booking.getStatus().name() : "UNKNOWN");
-                    checkout.put("createdAt", booking.getCreatedAt() != null ? booking.getCreatedAt().toString() : "");
-                    checkout.put("updatedAt", booking.getUpdatedAt() != null ? booking.getUpdatedAt().toString() : "");
-                    
-                    // Calculate stay duration
-                    if (booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
-                        long days = java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
-                        checkout.put("stayDuration", days);
-                    } else {
-                        checkout.put("stayDuration", 0);
-                    }
-                    
-                    checkoutsData.add(checkout);
+                    checkoutsData.add(GuestStayRow.of(booking, relations.user(booking.getUserId()), relations.room(booking.getRoomId()), false));
                 } catch (Exception e) {
                     System.err.println("Error processing check-out booking " + (booking != null ? booking.getBookingReference() : "null") + ": " + e.getMessage());
                     e.printStackTrace();
@@ -263,11 +205,11 @@ public class FrontDeskController {
             }
 
             System.out.println("Successfully processed " + checkoutsData.size() + " check-outs");
-            return ResponseEntity.ok(checkoutsData);
+            return responseWriters.okList(checkoutsData, GuestStayRow.class);
         } catch (Exception e) {
             System.err.println("Error in getCheckOuts: " + e.getMessage());
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body(List.of());
+            return ResponseEntity.internalServerError().build();
         }
     }
 
@@ -284,6 +226,9 @@ public class FrontDeskController {
             List<EventBooking> pendingEventBookings = eventBookingRepository.findByStatus(EventBooking.EventBookingStatus.PENDING);
             System.out.println("Found " + pendingEventBookings.size() + " pending event bookings");
 
+            // Users, rooms and event spaces for both lists in one query each
+            RelationHydrator.Relations relations = relationHydrator.hydrate(pendingRoomBookings, pendingEventBookings);
+
             List<Map<String, Object>> pendingBookings = new ArrayList<>();
             
             // Process room bookings
@@ -293,7 +238,7 @@ public class FrontDeskController {
                     pending.put("bookingReference", booking.getBookingReference());
                     
                     // Safely access user data
-                    User user = booking.getUser();
+                    User user = relations.user(booking.getUserId());
                     if (user != null) {
                         pending.put("guestName", user.getFirstName() + " " + user.getLastName());
                     } else {
@@ -301,7 +246,7 @@ public class FrontDeskController {
                     }
                     
                     // Safely access room data
-                    Room room = booking.getRoom();
+                    Room room = relations.room(booking.getRoomId());
                     if (room != null) {
                         pending.put("roomEvent", "Room " + room.getRoomNumber());
                     } else {
@@ -326,7 +271,7 @@ public class FrontDeskController {
                     pending.put("bookingReference", booking.getBookingReference());
                     
                     // Safely access user data
-                    User user = booking.getUser();
+                    User user = relations.user(booking.getUserId());
                     if (user != null) {
                         pending.put("guestName", user.getFirstName() + " " + user.getLastName());
                     } else {
@@ -334,7 +279,7 @@ public class FrontDeskController {
                     }
                     
                     // Safely access event space data
-                    EventSpace eventSpace = booking.getEventSpace();
+                    EventSpace eventSpace = relations.eventSpace(booking.getEventSpaceId());
                     if (eventSpace != null) {
                         pending.put("roomEvent", eventSpace.getName());
                     } else {
@@ -363,7 +308,7 @@ public class FrontDeskController {
 
     // Get current guests with improved error handling and validation
     @GetMapping("/current-guests")
-    public ResponseEntity<List<Map<String, Object>>> getCurrentGuests() {
+    public ResponseEntity<byte[]> getCurrentGuests() {
         try {
             System.out.println("Getting current guests...");
             
@@ -371,7 +316,10 @@ public class FrontDeskController {
             List<Booking> currentGuests = bookingRepository.findByStatus(Booking.BookingStatus.CHECKED_IN);
             System.out.println("Found " + currentGuests.size() + " current guests");
 
-            List<Map<String, Object>> guestsData = new ArrayList<>();
+            // Users and rooms for the whole list in one query each
+            RelationHydrator.Relations relations = relationHydrator.hydrate(currentGuests);
+
+            List<GuestStayRow> guestsData = new ArrayList<>();
             
             for (Booking booking : currentGuests) {
                 try {
@@ -381,59 +329,7 @@ public class FrontDeskController {
                         continue;
                     }
                     
-                    Map<String, Object> guest = new HashMap<>();
-                    guest.put("bookingReference", booking.getBookingReference());
-                    
-                    // Safely access user data with validation
-                    User user = booking.getUser();
-                    if (user != null && user.getFirstName() != null && user.getLastName() != null) {
-                        guest.put("guestName", user.getFirstName() + " " + user.getLastName());
-                        guest.put("guestEmail", user.getEmail() != null ? user.getEmail() : "");
-                        guest.put("guestPhone", user.getPhone() != null ? user.getPhone() : "");
-                    } else {
-                        guest.put("guestName", "Unknown Guest");
-                        guest.put("guestEmail", "");
-                        guest.put("guestPhone", "");
-                    }
-                    
-                    // Safely access room data with validation
-                    Room room = booking.getRoom();
-                    if (room != null && room.getRoomNumber() != null) {
-                        guest.put("roomNumber", room.getRoomNumber());
-                        guest.put("roomType", room.getRoomType() != null ? room.getRoomType() : "");
-                        guest.put("floorNumber", room.getFloorNumber() != null ? room.getFloorNumber() : "");
-                    } else {
-                        guest.put("roomNumber", "Unknown");
-                        guest.put("roomType", "");
-                        guest.put("floorNumber", "");
-                    }
-                    
-                    // Add comprehensive booking data
-                    guest.put("checkInDate", booking.getCheckInDate() != null ? booking.getCheckInDate().toString() : "");
-                    guest.put("checkOutDate", booking.getCheckOutDate() != null ? booking.getCheckOutDate().toString() : "");
-                    guest.put("guestCount", booking.getGuestCount() != null ? booking.getGuestCount() : 0);
-                    guest.put("totalAmount", booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO);
-                    guest.put("specialRequests", booking.getSpecialRequests() != null ? booking.getSpecialRequests() : "");
-                    guest.put("status", booking.getStatus() != null ? booking.getStatus().name() : "UNKNOWN");
-                    guest.put("createdAt", booking.getCreatedAt() != null ? booking.getCreatedAt().toString() : "");
-                    guest.put("updatedAt", booking.getUpdatedAt() != null ? booking.getUpdatedAt().toString() : "");
-                    
-                    // Calculate stay duration and remaining days
-                    if (booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
-                        long totalDays = java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
-                        long daysElapsed = java.time.temporal.ChronoUnit.DAYS.between(booking.getCheckInDate(), LocalDate.now());
-                        long remainingDays = totalDays - daysElapsed;
-                        
-                        guest.put("stayDuration", totalDays);
-                        guest.put("daysElapsed", daysElapsed);
-                        guest.put("remainingDays", Math.max(0, remainingDays));
-                    } else {
-                        guest.put("stayDuration", 0);
-                        guest.put("daysElapsed", 0);
-                        guest.put("remainingDays", 0);
-                    }
-                    
-                    guestsData.add(guest);
+                    guestsData.add(GuestStayRow.of(booking, relations.user(booking.getUserId()), relations.room(booking.getRoomId()), true));
                 } catch (Exception e) {
                     System.err.println("Error processing current guest booking " + (booking != null ? booking.getBookingReference() : "null") + ": " + e.getMessage());
                     e.printStackTrace();
@@ -441,11 +337,11 @@ public class FrontDeskController {
             }
 
             System.out.println("Successfully processed " + guestsData.size() + " current guests");
-            return ResponseEntity.ok(guestsData);
+            return responseWriters.okList(guestsData, GuestStayRow.class);
         } catch (Exception e) {
             System.err.println("Error in getCurrentGuests: " + e.getMessage());
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body(List.of());
+            return ResponseEntity.internalServerError().build();
         }
     }
 
@@ -608,6 +504,10 @@ public class FrontDeskController {
                 // Save booking
                 bookingRepository.save(booking);
                 
+                // Remaining nights of an early departure become bookable again
+                availabilityIndex.endStay(booking.getId(), today);
+                nightClaims.releaseFrom(booking.getBookingReference(), today);
+                
                 // Complete any pending payments for this booking
                 completeBookingPayments(booking);
                 
@@ -659,6 +559,7 @@ public class FrontDeskController {
                 booking.setStatus(EventBooking.EventBookingStatus.CONFIRMED);
                 booking.setUpdatedAt(LocalDateTime.now());
                 eventBookingRepository.save(booking);
+                scheduleIndex.update(booking);
                 return ResponseEntity.ok(Map.of("message", "Event booking confirmed successfully"));
             }
 
@@ -684,6 +585,8 @@ public class FrontDeskController {
                 roomRepository.save(booking.getRoom());
                 
                 bookingRepository.save(booking);
+                availabilityIndex.release(booking.getId());
+                nightClaims.release(booking.getBookingReference());
                 
                 // Complete any pending payments for this booking
                 completeBookingPayments(booking);
@@ -697,6 +600,7 @@ public class FrontDeskController {
                 booking.setStatus(EventBooking.EventBookingStatus.CANCELLED);
                 booking.setUpdatedAt(LocalDateTime.now());
                 eventBookingRepository.save(booking);
+                scheduleIndex.update(booking);
                 return ResponseEntity.ok(Map.of("message", "Event booking rejected successfully"));
             }
 
@@ -769,6 +673,9 @@ public class FrontDeskController {
             Optional<Booking> roomBookingOpt = bookingRepository.findByBookingReference(bookingReference);
             if (roomBookingOpt.isPresent()) {
                 Booking booking = roomBookingOpt.get();
+                LocalDate previousCheckIn = booking.getCheckInDate();
+                LocalDate previousCheckOut = booking.getCheckOutDate();
+                boolean wasActive = isActiveStay(booking.getStatus());
                 
                 // Update allowed fields
                 if (updateData.containsKey("guestCount")) {
@@ -787,8 +694,26 @@ public class FrontDeskController {
                     booking.setStatus(Booking.BookingStatus.valueOf((String) updateData.get("status")));
                 }
                 
+                // Re-claim the nights before saving so a date change cannot land on another guest's stay
+                if (!isActiveStay(booking.getStatus())) {
+                    nightClaims.release(booking.getBookingReference());
+                } else if (!wasActive) {
+                    // A cancelled or checked-out booking holds no nights; it must win them back to reopen
+                    if (!nightClaims.claim(booking.getRoomId(), booking.getBookingReference(),
+                            booking.getCheckInDate(), booking.getCheckOutDate())) {
+                        return ResponseEntity.badRequest().body(Map.of("message", "Room is not available for the selected dates"));
+                    }
+                } else if (!booking.getCheckInDate().equals(previousCheckIn)
+                        || !booking.getCheckOutDate().equals(previousCheckOut)) {
+                    if (!nightClaims.move(booking.getRoomId(), booking.getBookingReference(),
+                            previousCheckIn, previousCheckOut, booking.getCheckInDate(), booking.getCheckOutDate())) {
+                        return ResponseEntity.badRequest().body(Map.of("message", "Room is not available for the selected dates"));
+                    }
+                }
+                
                 booking.setUpdatedAt(LocalDateTime.now());
                 bookingRepository.save(booking);
+                availabilityIndex.occupy(booking);
                 
                 // Complete any pending payments for this booking
                 completeBookingPayments(booking);
@@ -819,6 +744,7 @@ public class FrontDeskController {
                 
                 booking.setUpdatedAt(LocalDateTime.now());
                 eventBookingRepository.save(booking);
+                scheduleIndex.update(booking);
                 return ResponseEntity.ok(Map.of("message", "Event booking updated successfully"));
             }
 
@@ -830,16 +756,55 @@ public class FrontDeskController {
 
     // Get all bookings (for front desk view)
     @GetMapping("/all-bookings")
-    public ResponseEntity<List<Map<String, Object>>> getAllBookings() {
+    public ResponseEntity<List<Map<String, Object>>> getAllBookings(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String status,
+                                                                    @RequestParam(required = false) String fields) {
         try {
             System.out.println("Getting all bookings...");
             
-            // Get all room bookings with eager loading
-            List<Booking> allRoomBookings = bookingRepository.findAll();
+            // One keyset page across room and event bookings, newest first
+            // Room and event bookings have different status enums; each type is filtered on its own
+            Booking.BookingStatus roomStatus = KeysetPager.statusOf(Booking.BookingStatus.class, status);
+            EventBooking.EventBookingStatus eventStatus = KeysetPager.statusOf(EventBooking.EventBookingStatus.class, status);
+            if (status != null && roomStatus == null && eventStatus == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            Map<Class<?>, FieldProjection.Selection> selections = fieldProjection.selectAcross(fields, List.of(Booking.class, EventBooking.class));
+            List<KeysetPager.Source<?>> sources = new ArrayList<>();
+            if (status == null || roomStatus != null) {
+                sources.add(new KeysetPager.Source<>(Booking.class, roomStatus != null ? Criteria.where("status").is(roomStatus) : null,
+                        b -> new KeysetPager.Key(b.getCreatedAt(), b.getId()), selections.get(Booking.class)));
+            }
+            if (status == null || eventStatus != null) {
+                sources.add(new KeysetPager.Source<>(EventBooking.class, eventStatus != null ? Criteria.where("status").is(eventStatus) : null,
+                        ev -> new KeysetPager.Key(ev.getCreatedAt(), ev.getId()), selections.get(EventBooking.class)));
+            }
+            KeysetPager.Page<Object> page = keysetPager.pageAcross(cursor, limit, sources);
+
+            // Only the requested fields were read, so return them as-is
+            if (!selections.isEmpty()) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (Object item : page.items()) {
+                    Map<String, Object> row = selections.get(item.getClass()).pick(item);
+                    row.put("type", item instanceof Booking ? "ROOM" : "EVENT");
+                    rows.add(row);
+                }
+                return KeysetPager.ok(page).body(rows);
+            }
+            
+            List<Booking> allRoomBookings = page.items().stream()
+                    .filter(Booking.class::isInstance)
+                    .map(Booking.class::cast)
+                    .toList();
             System.out.println("Found " + allRoomBookings.size() + " room bookings");
             
-            List<EventBooking> allEventBookings = eventBookingRepository.findAll();
+            List<EventBooking> allEventBookings = page.items().stream()
+                    .filter(EventBooking.class::isInstance)
+                    .map(EventBooking.class::cast)
+                    .toList();
             System.out.println("Found " + allEventBookings.size() + " event bookings");
+            RelationHydrator.Relations relations = relationHydrator.hydrate(page.items());
 
             List<Map<String, Object>> allBookings = new ArrayList<>();
             
@@ -850,7 +815,7 @@ public class FrontDeskController {
                     bookingData.put("bookingReference", booking.getBookingReference());
                     
                     // Safely access user data
-                    User user = booking.getUser();
+                    User user = relations.user(booking.getUserId());
                     if (user != null) {
                         bookingData.put("guestName", user.getFirstName() + " " + user.getLastName());
                         bookingData.put("guestEmail", user.getEmail());
@@ -860,7 +825,7 @@ public class FrontDeskController {
                     }
                     
                     // Safely access room data
-                    Room room = booking.getRoom();
+                    Room room = relations.room(booking.getRoomId());
                     if (room != null) {
                         bookingData.put("roomEvent", "Room " + room.getRoomNumber());
                     } else {
@@ -889,7 +854,7 @@ public class FrontDeskController {
                     bookingData.put("bookingReference", booking.getBookingReference());
                     
                     // Safely access user data
-                    User user = booking.getUser();
+                    User user = relations.user(booking.getUserId());
                     if (user != null) {
                         bookingData.put("guestName", user.getFirstName() + " " + user.getLastName());
                         bookingData.put("guestEmail", user.getEmail());
@@ -899,7 +864,7 @@ public class FrontDeskController {
                     }
                     
                     // Safely access event space data
-                    EventSpace eventSpace = booking.getEventSpace();
+                    EventSpace eventSpace = relations.eventSpace(booking.getEventSpaceId());
                     if (eventSpace != null) {
                         bookingData.put("roomEvent", eventSpace.getName());
                     } else {
@@ -922,7 +887,9 @@ public class FrontDeskController {
             }
 
             System.out.println("Total bookings to return: " + allBookings.size());
-            return ResponseEntity.ok(allBookings);
+            return KeysetPager.ok(page).body(allBookings);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("Error in getAllBookings: " + e.getMessage());
             e.printStackTrace();
@@ -930,15 +897,16 @@ public class FrontDeskController {
         }
     }
     
+    private static boolean isActiveStay(Booking.BookingStatus status) {
+        return status != Booking.BookingStatus.CANCELLED && status != Booking.BookingStatus.CHECKED_OUT;
+    }
+
     // Helper method to complete pending payments for a booking
     private void completeBookingPayments(Booking booking) {
         try {
             // Find all pending payments for this booking
-            List<Payment> pendingPayments = paymentRepository.findAll().stream()
-                .filter(payment -> payment.getBooking() != null && 
-                                 payment.getBooking().getId().equals(booking.getId()) &&
-                                 payment.getPaymentStatus() == Payment.PaymentStatus.PENDING)
-                .toList();
+            List<Payment> pendingPayments = paymentRepository.findByBookingIdAndPaymentStatus(
+                    booking.getId(), Payment.PaymentStatus.PENDING);
             
             // Mark all pending payments as completed
             for (Payment payment : pendingPayments) {
@@ -2,13 +2,24 @@ package com.sliit.goldenpalmresort.controller;
 
 import com.sliit.goldenpalmresort.model.*;
 import com.sliit.goldenpalmresort.repository.*;
+import com.sliit.goldenpalmresort.service.DashboardFanOut;
+import com.sliit.goldenpalmresort.service.FieldProjection;
+import com.sliit.goldenpalmresort.service.KeysetPager;
+import com.sliit.goldenpalmresort.service.NightClaimService;
+import com.sliit.goldenpalmresort.service.RelationHydrator;
+import com.sliit.goldenpalmresort.service.RevenueRollupService;
+import com.sliit.goldenpalmresort.service.RoomAvailabilityIndex;
+import com.sliit.goldenpalmresort.service.TokenVersions;
+import com.sliit.goldenpalmresort.service.UserDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -44,33 +55,63 @@ public class ManagerController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private NightClaimService nightClaims;
+
+    @Autowired
+    private RevenueRollupService revenueRollup;
+
+    @Autowired
+    private DashboardFanOut dashboardFanOut;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    @Autowired
+    private RelationHydrator relationHydrator;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
     // ==================== MANAGER DASHBOARD ====================
     
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getManagerDashboard() {
         try {
-            Map<String, Object> dashboard = new HashMap<>();
-            
-            // Operational Statistics
-            dashboard.put("totalRooms", roomRepository.count());
-            dashboard.put("availableRooms", roomRepository.findByStatus(Room.RoomStatus.AVAILABLE).size());
-            dashboard.put("occupiedRooms", roomRepository.findByStatus(Room.RoomStatus.OCCUPIED).size());
-            dashboard.put("maintenanceRooms", roomRepository.findByStatus(Room.RoomStatus.MAINTENANCE).size());
-            
-            // Booking Statistics
-            dashboard.put("todayCheckIns", getTodayCheckIns());
-            dashboard.put("todayCheckOuts", getTodayCheckOuts());
-            dashboard.put("pendingBookings", bookingRepository.findByStatus(Booking.BookingStatus.PENDING).size());
-            dashboard.put("confirmedBookings", bookingRepository.findByStatus(Booking.BookingStatus.CONFIRMED).size());
+            LocalDate today = LocalDate.now();
             
-            // Revenue Analytics
-            dashboard.put("todayRevenue", getTodayRevenue());
-            dashboard.put("monthlyRevenue", getMonthlyRevenue());
-            dashboard.put("occupancyRate", calculateOccupancyRate());
-            
-            // Staff Overview
-            dashboard.put("frontDeskStaff", userRepository.findByRole(User.UserRole.FRONT_DESK).size());
-            dashboard.put("paymentOfficers", userRepository.findByRole(User.UserRole.PAYMENT_OFFICER).size());
+            // Independent sections run concurrently; each query carries the section deadline as its server-side max time
+            Map<String, Object> dashboard = dashboardFanOut.run(List.of(
+                // Operational Statistics
+                dashboardFanOut.countSection("totalRooms", Room.class, new Criteria()),
+                dashboardFanOut.countSection("availableRooms", Room.class, Criteria.where("status").is(Room.RoomStatus.AVAILABLE)),
+                dashboardFanOut.countSection("occupiedRooms", Room.class, Criteria.where("status").is(Room.RoomStatus.OCCUPIED)),
+                dashboardFanOut.countSection("maintenanceRooms", Room.class, Criteria.where("status").is(Room.RoomStatus.MAINTENANCE)),
+                
+                // Booking Statistics
+                dashboardFanOut.countSection("todayCheckIns", Booking.class, Criteria.where("checkInDate").is(today)),
+                dashboardFanOut.countSection("todayCheckOuts", Booking.class, Criteria.where("checkOutDate").is(today)),
+                dashboardFanOut.countSection("pendingBookings", Booking.class, Criteria.where("status").is(Booking.BookingStatus.PENDING)),
+                dashboardFanOut.countSection("confirmedBookings", Booking.class, Criteria.where("status").is(Booking.BookingStatus.CONFIRMED)),
+                
+                // Revenue Analytics
+                dashboardFanOut.timedSection("todayRevenue", maxTime -> revenueRollup.completedBetween(today, today, maxTime)),
+                dashboardFanOut.timedSection("monthlyRevenue", maxTime -> revenueRollup.completedBetween(today.withDayOfMonth(1), today, maxTime)),
+                dashboardFanOut.timedSection("occupancyRate", this::calculateOccupancyRate),
+                
+                // Staff Overview
+                dashboardFanOut.countSection("frontDeskStaff", User.class, Criteria.where("role").is(User.UserRole.FRONT_DESK)),
+                dashboardFanOut.countSection("paymentOfficers", User.class, Criteria.where("role").is(User.UserRole.PAYMENT_OFFICER))
+            ));
             
             return ResponseEntity.ok(dashboard);
         } catch (Exception e) {
@@ -151,6 +192,9 @@ public class ManagerController {
                 return ResponseEntity.badRequest().body(Map.of("message", "Cannot modify admin or manager accounts"));
             }
 
+            User.UserRole previousRole = user.getRole();
+            boolean wasActive = user.isActive();
+
             if (staffData.containsKey("firstName")) user.setFirstName((String) staffData.get("firstName"));
             if (staffData.containsKey("lastName")) user.setLastName((String) staffData.get("lastName"));
             if (staffData.containsKey("email")) user.setEmail((String) staffData.get("email"));
@@ -165,7 +209,12 @@ public class ManagerController {
                 }
             }
 
-            user = userRepository.save(user);
+            userRepository.saveProfile(user);
+            userDirectory.invalidate(user);
+            // Tokens carry the role; a role change or deactivation revokes them
+            if (user.getRole() != previousRole || (wasActive && !user.isActive())) {
+                tokenVersions.revoke(user);
+            }
             return ResponseEntity.ok(mapUserToResponse(user));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Error updating staff member: " + e.getMessage()));
@@ -175,13 +224,25 @@ public class ManagerController {
     // ==================== BOOKING MANAGEMENT ====================
     
     @GetMapping("/bookings")
-    public ResponseEntity<List<Map<String, Object>>> getAllBookings() {
+    public ResponseEntity<List<Map<String, Object>>> getAllBookings(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String status,
+                                                                    @RequestParam(required = false) String fields) {
         try {
-            List<Booking> bookings = bookingRepository.findAll();
-            List<Map<String, Object>> bookingData = bookings.stream()
-                .map(this::mapBookingToResponse)
+            Criteria filter = status != null ? Criteria.where("status").is(Booking.BookingStatus.valueOf(status.toUpperCase())) : null;
+            FieldProjection.Selection selection = fieldProjection.select(Booking.class, fields);
+            KeysetPager.Page<Booking> page = keysetPager.page(Booking.class, filter, cursor, limit,
+                    booking -> new KeysetPager.Key(booking.getCreatedAt(), booking.getId()), selection);
+            if (selection != null) {
+                return KeysetPager.ok(page).body(page.items().stream().map(selection::pick).toList());
+            }
+            RelationHydrator.Relations relations = relationHydrator.hydrate(page.items());
+            List<Map<String, Object>> bookingData = page.items().stream()
+                .map(booking -> mapBookingToResponse(booking, relations))
                 .collect(Collectors.toList());
-            return ResponseEntity.ok(bookingData);
+            return KeysetPager.ok(page).body(bookingData);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -191,8 +252,9 @@ public class ManagerController {
     public ResponseEntity<List<Map<String, Object>>> getPendingBookings() {
         try {
             List<Booking> pendingBookings = bookingRepository.findByStatus(Booking.BookingStatus.PENDING);
+            RelationHydrator.Relations relations = relationHydrator.hydrate(pendingBookings);
             List<Map<String, Object>> bookingData = pendingBookings.stream()
-                .map(this::mapBookingToResponse)
+                .map(booking -> mapBookingToResponse(booking, relations))
                 .collect(Collectors.toList());
             return ResponseEntity.ok(bookingData);
         } catch (Exception e) {
@@ -242,6 +304,8 @@ public class ManagerController {
             roomRepository.save(room);
             
             booking = bookingRepository.save(booking);
+            availabilityIndex.release(booking.getId());
+            nightClaims.release(booking.getBookingReference());
             return ResponseEntity.ok(mapBookingToResponse(booking));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Error cancelling booking: " + e.getMessage()));
@@ -273,6 +337,7 @@ public class ManagerController {
             room.setStatus(Room.RoomStatus.valueOf(newStatus));
             
             room = roomRepository.save(room);
+            availabilityIndex.refreshRoom(room);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Error updating room status: " + e.getMessage()));
@@ -329,11 +394,18 @@ public class ManagerController {
     }
 
     private Map<String, Object> mapBookingToResponse(Booking booking) {
+        return mapBookingToResponse(booking, relationHydrator.hydrate(List.of(booking)));
+    }
+
+    // Lists pass one Relations built for the whole page so guests and rooms are not looked up per row
+    private Map<String, Object> mapBookingToResponse(Booking booking, RelationHydrator.Relations relations) {
+        User user = relations.user(booking.getUserId());
+        Room room = relations.room(booking.getRoomId());
         Map<String, Object> bookingData = new HashMap<>();
         bookingData.put("id", booking.getId());
         bookingData.put("bookingReference", booking.getBookingReference());
-        bookingData.put("guestName", booking.getUser().getFirstName() + " " + booking.getUser().getLastName());
-        bookingData.put("roomNumber", booking.getRoom().getRoomNumber());
+        bookingData.put("guestName", user != null ? user.getFirstName() + " " + user.getLastName() : "Unknown Guest");
+        bookingData.put("roomNumber", room != null ? room.getRoomNumber() : "Unknown");
         bookingData.put("checkInDate", booking.getCheckInDate().toString());
         bookingData.put("checkOutDate", booking.getCheckOutDate().toString());
         bookingData.put("guestCount", booking.getGuestCount());
@@ -343,64 +415,41 @@ public class ManagerController {
         return bookingData;
     }
 
-    private long getTodayCheckIns() {
-        return bookingRepository.findAll().stream()
-            .filter(b -> b.getCheckInDate().equals(LocalDate.now()))
-            .count();
-    }
-
-    private long getTodayCheckOuts() {
-        return bookingRepository.findAll().stream()
-            .filter(b -> b.getCheckOutDate().equals(LocalDate.now()))
-            .count();
-    }
-
     private BigDecimal getTodayRevenue() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().plusDays(1).atStartOfDay();
-        
-        return paymentRepository.findAll().stream()
-            .filter(p -> p.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-            .filter(p -> p.getPaymentDate() != null && 
-                        p.getPaymentDate().isAfter(startOfDay) && 
-                        p.getPaymentDate().isBefore(endOfDay))
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate today = LocalDate.now();
+        return revenueRollup.completedBetween(today, today);
     }
 
     private BigDecimal getWeeklyRevenue() {
-        LocalDateTime weekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        return paymentRepository.findAll().stream()
-            .filter(p -> p.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-            .filter(p -> p.getPaymentDate() != null && p.getPaymentDate().isAfter(weekAgo))
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate today = LocalDate.now();
+        // The last seven days, today included
+        return revenueRollup.completedBetween(today.minusDays(6), today);
     }
 
     private BigDecimal getMonthlyRevenue() {
-        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        
-        return paymentRepository.findAll().stream()
-            .filter(p -> p.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-            .filter(p -> p.getPaymentDate() != null && p.getPaymentDate().isAfter(startOfMonth))
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate today = LocalDate.now();
+        return revenueRollup.completedBetween(today.withDayOfMonth(1), today);
     }
 
     private BigDecimal getYearlyRevenue() {
-        LocalDateTime startOfYear = LocalDate.now().withDayOfYear(1).atStartOfDay();
-        
-        return paymentRepository.findAll().stream()
-            .filter(p -> p.getPaymentStatus() == Payment.PaymentStatus.COMPLETED)
-            .filter(p -> p.getPaymentDate() != null && p.getPaymentDate().isAfter(startOfYear))
-            .map(Payment::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate today = LocalDate.now();
+        return revenueRollup.completedBetween(today.withDayOfYear(1), today);
     }
 
     private int calculateOccupancyRate() {
         long totalRooms = roomRepository.count();
-        long occupiedRooms = roomRepository.findByStatus(Room.RoomStatus.OCCUPIED).size();
+        long occupiedRooms = roomRepository.countByStatus(Room.RoomStatus.OCCUPIED);
+        return occupancyPercent(totalRooms, occupiedRooms);
+    }
+
+    // Dashboard variant: both counts are aborted by the server once maxTime has passed
+    private int calculateOccupancyRate(Duration maxTime) {
+        long totalRooms = dashboardFanOut.count(Room.class, new Criteria(), maxTime);
+        long occupiedRooms = dashboardFanOut.count(Room.class, Criteria.where("status").is(Room.RoomStatus.OCCUPIED), maxTime);
+        return occupancyPercent(totalRooms, occupiedRooms);
+    }
+
+    private static int occupancyPercent(long totalRooms, long occupiedRooms) {
         return totalRooms > 0 ? (int) Math.round((double) occupiedRooms / totalRooms * 100) : 0;
     }
 
@@ -1,9 +1,11 @@
 package com.sliit.goldenpalmresort.controller;
 
+import com.sliit.goldenpalmresort.dto.NotificationView;
 import com.sliit.goldenpalmresort.model.Notification;
 import com.sliit.goldenpalmresort.model.User;
-import com.sliit.goldenpalmresort.repository.UserRepository;
 import com.sliit.goldenpalmresort.service.NotificationService;
+import com.sliit.goldenpalmresort.service.ResponseWriters;
+import com.sliit.goldenpalmresort.service.UserDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -21,16 +23,19 @@ public class NotificationController {
     private NotificationService notificationService;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
+    
+    @Autowired
+    private ResponseWriters responseWriters;
     
     /**
      * Get all notifications for the current user
      */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getUserNotifications(Authentication authentication) {
+    public ResponseEntity<byte[]> getUserNotifications(Authentication authentication) {
         try {
             String username = authentication.getName();
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = userDirectory.findByUsername(username);
             
             if (userOpt.isEmpty()) {
                 return ResponseEntity.badRequest().build();
@@ -39,23 +44,11 @@ public class NotificationController {
             User user = userOpt.get();
             List<Notification> notifications = notificationService.getUserNotifications(user);
             
-            List<Map<String, Object>> notificationData = notifications.stream().map(notif -> {
-                Map<String, Object> data = new HashMap<>();
-                data.put("id", notif.getId());
-                data.put("type", notif.getType());
-                data.put("title", notif.getTitle());
-                data.put("message", notif.getMessage());
-                data.put("referenceId", notif.getReferenceId());
-                data.put("referenceType", notif.getReferenceType());
-                data.put("isRead", notif.isRead());
-                data.put("createdAt", notif.getCreatedAt());
-                data.put("readAt", notif.getReadAt());
-                data.put("sentBy", notif.getSentBy());
-                
-                return data;
-            }).collect(Collectors.toList());
-            
-            return ResponseEntity.ok(notificationData);
+            List<NotificationView> notificationData = notifications.stream()
+                .map(NotificationView::of)
+                .collect(Collectors.toList());
+            
+            return responseWriters.okList(notificationData, NotificationView.class);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -65,10 +58,10 @@ public class NotificationController {
      * Get unread notifications for the current user
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<Map<String, Object>>> getUnreadNotifications(Authentication authentication) {
+    public ResponseEntity<byte[]> getUnreadNotifications(Authentication authentication) {
         try {
             String username = authentication.getName();
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = userDirectory.findByUsername(username);
             
             if (userOpt.isEmpty()) {
                 return ResponseEntity.badRequest().build();
@@ -77,22 +70,11 @@ public class NotificationController {
             User user = userOpt.get();
             List<Notification> notifications = notificationService.getUnreadNotifications(user);
             
-            List<Map<String, Object>> notificationData = notifications.stream().map(notif -> {
-                Map<String, Object> data = new HashMap<>();
-                data.put("id", notif.getId());
-                data.put("type", notif.getType());
-                data.put("title", notif.getTitle());
-                data.put("message", notif.getMessage());
-                data.put("referenceId", notif.getReferenceId());
-                data.put("referenceType", notif.getReferenceType());
-                data.put("isRead", notif.isRead());
-                data.put("createdAt", notif.getCreatedAt());
-                data.put("sentBy", notif.getSentBy());
-                
-                return data;
-            }).collect(Collectors.toList());
-            
-            return ResponseEntity.ok(notificationData);
+            List<NotificationView> notificationData = notifications.stream()
+                .map(NotificationView::of)
+                .collect(Collectors.toList());
+            
+            return responseWriters.okList(notificationData, NotificationView.class);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -105,7 +87,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> getUnreadCount(Authentication authentication) {
         try {
             String username = authentication.getName();
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = userDirectory.findByUsername(username);
             
             if (userOpt.isEmpty()) {
                 return ResponseEntity.badRequest().build();
@@ -127,7 +109,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> markAsRead(@PathVariable Long id, Authentication authentication) {
         try {
             String username = authentication.getName();
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = userDirectory.findByUsername(username);
             Optional<Notification> notifOpt = notificationService.getNotificationById(id);
             
             if (userOpt.isEmpty() || notifOpt.isEmpty()) {
@@ -158,7 +140,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> markAllAsRead(Authentication authentication) {
         try {
             String username = authentication.getName();
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = userDirectory.findByUsername(username);
             
             if (userOpt.isEmpty()) {
                 return ResponseEntity.badRequest().build();
@@ -181,7 +163,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> deleteNotification(@PathVariable Long id, Authentication authentication) {
         try {
             String username = authentication.getName();
-            Optional<User> userOpt = userRepository.findByUsername(username);
+            Optional<User> userOpt = userDirectory.findByUsername(username);
             Optional<Notification> notifOpt = notificationService.getNotificationById(id);
             
             if (userOpt.isEmpty() || notifOpt.isEmpty()) {
@@ -1,13 +1,19 @@
 package com.sliit.goldenpalmresort.controller;
 
+import com.sliit.goldenpalmresort.dto.PaymentBreakdown;
 import com.sliit.goldenpalmresort.dto.PaymentResponse;
+import com.sliit.goldenpalmresort.dto.PaymentSummary;
 import com.sliit.goldenpalmresort.model.Payment;
 import com.sliit.goldenpalmresort.repository.PaymentRepository;
+import com.sliit.goldenpalmresort.service.FieldProjection;
+import com.sliit.goldenpalmresort.service.KeysetPager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -23,14 +29,40 @@ public class PaymentOfficerController {
     @Autowired
     private PaymentRepository paymentRepository;
     
+    @Autowired
+    private KeysetPager keysetPager;
+    
+    @Autowired
+    private FieldProjection fieldProjection;
+    
     // Get all payments
     @GetMapping("/payments")
-    public ResponseEntity<List<PaymentResponse>> getAllPayments() {
+    public ResponseEntity<List<?>> getAllPayments(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String status,
+                                                  @RequestParam(required = false) String method,
+                                                  @RequestParam(required = false) String fields) {
         try {
             System.out.println("Getting all payments...");
-            List<Payment> payments = paymentRepository.findAll();
+            List<Criteria> filters = new ArrayList<>();
+            if (status != null) {
+                filters.add(Criteria.where("paymentStatus").is(Payment.PaymentStatus.valueOf(status.toUpperCase())));
+            }
+            if (method != null) {
+                filters.add(Criteria.where("paymentMethod").is(Payment.PaymentMethod.valueOf(method.toUpperCase())));
+            }
+            Criteria filter = filters.isEmpty() ? null : new Criteria().andOperator(filters);
+            FieldProjection.Selection selection = fieldProjection.select(Payment.class, fields);
+            KeysetPager.Page<Payment> page = keysetPager.page(Payment.class, filter, cursor, limit,
+                    payment -> new KeysetPager.Key(payment.getCreatedAt(), payment.getId()), selection);
+            List<Payment> payments = page.items();
             System.out.println("Found " + payments.size() + " payments");
             
+            // Only the requested fields were read, so return them as-is
+            if (selection != null) {
+                return KeysetPager.ok(page).body(payments.stream().map(selection::pick).toList());
+            }
+            
             List<PaymentResponse> paymentResponses = new ArrayList<>();
             for (Payment payment : payments) {
                 try {
@@ -43,7 +75,10 @@ public class PaymentOfficerController {
             }
             
             System.out.println("Returning " + paymentResponses.size() + " payment responses");
-            return ResponseEntity.ok(paymentResponses);
+            return KeysetPager.ok(page).body(paymentResponses);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid payment listing request: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             System.err.println("Error in getAllPayments: " + e.getMessage());
             e.printStackTrace();
@@ -231,17 +266,20 @@ public class PaymentOfficerController {
             LocalDateTime startOfDay = reportDate.atStartOfDay();
             LocalDateTime endOfDay = reportDate.atTime(LocalTime.MAX);
             
-            List<Payment> dailyPayments = paymentRepository.findByPaymentDateBetween(startOfDay, endOfDay);
-            BigDecimal totalAmount = paymentRepository.sumCompletedAmountByDateRange(startOfDay, endOfDay);
+            // One aggregation returns both the day's rows and the all-time status rows
+            PaymentSummary summary = paymentRepository.summarizePayments(startOfDay, endOfDay);
+            List<PaymentBreakdown> day = summary.getPeriod();
+            List<PaymentBreakdown> overall = summary.getOverall();
             
             Map<String, Object> report = new HashMap<>();
             report.put("date", reportDate.toString());
-            report.put("totalPayments", dailyPayments.size());
-            report.put("totalAmount", totalAmount);
-            report.put("completedPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.COMPLETED));
-            report.put("pendingPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.PENDING));
-            report.put("failedPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.FAILED));
-            report.put("refundedPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.REFUNDED));
+            report.put("totalPayments", PaymentBreakdown.countOf(day));
+            report.put("totalAmount", PaymentBreakdown.totalOf(day, Payment.PaymentStatus.COMPLETED));
+            report.put("completedPayments", PaymentBreakdown.countOf(overall, Payment.PaymentStatus.COMPLETED));
+            report.put("pendingPayments", PaymentBreakdown.countOf(overall, Payment.PaymentStatus.PENDING));
+            report.put("failedPayments", PaymentBreakdown.countOf(overall, Payment.PaymentStatus.FAILED));
+            report.put("refundedPayments", PaymentBreakdown.countOf(overall, Payment.PaymentStatus.REFUNDED));
+            report.put("byMethod", PaymentBreakdown.byMethod(day));
             
             System.out.println("Daily payment report generated for date: " + reportDate);
             return ResponseEntity.ok(report);
@@ -261,14 +299,16 @@ public class PaymentOfficerController {
             LocalDateTime startOfMonth = reportMonth.atStartOfDay();
             LocalDateTime endOfMonth = reportMonth.plusMonths(1).minusDays(1).atTime(LocalTime.MAX);
             
-            BigDecimal monthlyRevenue = paymentRepository.sumCompletedAmountByDateRange(startOfMonth, endOfMonth);
-            List<Payment> monthlyPayments = paymentRepository.findByPaymentDateBetween(startOfMonth, endOfMonth);
+            List<PaymentBreakdown> rows = paymentRepository.summarizePaymentsBetween(startOfMonth, endOfMonth);
+            BigDecimal monthlyRevenue = PaymentBreakdown.totalOf(rows, Payment.PaymentStatus.COMPLETED);
+            long monthlyPayments = PaymentBreakdown.countOf(rows);
             
             Map<String, Object> report = new HashMap<>();
             report.put("month", reportMonth.getMonth().toString() + " " + reportMonth.getYear());
             report.put("totalRevenue", monthlyRevenue);
-            report.put("totalPayments", monthlyPayments.size());
-            report.put("averagePayment", monthlyPayments.isEmpty() ? BigDecimal.ZERO : monthlyRevenue.divide(BigDecimal.valueOf(monthlyPayments.size()), 2, BigDecimal.ROUND_HALF_UP));
+            report.put("totalPayments", monthlyPayments);
+            report.put("averagePayment", monthlyPayments == 0 ? BigDecimal.ZERO : monthlyRevenue.divide(BigDecimal.valueOf(monthlyPayments), 2, RoundingMode.HALF_UP));
+            report.put("byMethod", PaymentBreakdown.byMethod(rows));
             
             System.out.println("Monthly revenue report generated for month: " + reportMonth);
             return ResponseEntity.ok(report);
@@ -285,14 +325,17 @@ public class PaymentOfficerController {
         try {
             System.out.println("Getting payment statistics...");
             
+            List<PaymentBreakdown> rows = paymentRepository.summarizeAllPayments();
+            
             Map<String, Object> statistics = new HashMap<>();
-            statistics.put("totalPayments", paymentRepository.count());
-            statistics.put("completedPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.COMPLETED));
-            statistics.put("pendingPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.PENDING));
-            statistics.put("failedPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.FAILED));
-            statistics.put("refundedPayments", paymentRepository.countByPaymentStatus(Payment.PaymentStatus.REFUNDED));
-            statistics.put("totalRevenue", paymentRepository.sumAmountByStatus(Payment.PaymentStatus.COMPLETED));
-            statistics.put("totalRefunds", paymentRepository.sumAmountByStatus(Payment.PaymentStatus.REFUNDED));
+            statistics.put("totalPayments", PaymentBreakdown.countOf(rows));
+            statistics.put("completedPayments", PaymentBreakdown.countOf(rows, Payment.PaymentStatus.COMPLETED));
+            statistics.put("pendingPayments", PaymentBreakdown.countOf(rows, Payment.PaymentStatus.PENDING));
+            statistics.put("failedPayments", PaymentBreakdown.countOf(rows, Payment.PaymentStatus.FAILED));
+            statistics.put("refundedPayments", PaymentBreakdown.countOf(rows, Payment.PaymentStatus.REFUNDED));
+            statistics.put("totalRevenue", PaymentBreakdown.totalOf(rows, Payment.PaymentStatus.COMPLETED));
+            statistics.put("totalRefunds", PaymentBreakdown.totalOf(rows, Payment.PaymentStatus.REFUNDED));
+            statistics.put("byMethod", PaymentBreakdown.byMethod(rows));
             
             System.out.println("Payment statistics generated successfully");
             return ResponseEntity.ok(statistics);
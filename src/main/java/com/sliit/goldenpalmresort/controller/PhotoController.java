@@ -2,12 +2,17 @@ package com.sliit.goldenpalmresort.controller;
 
 import com.sliit.goldenpalmresort.dto.PhotoResponse;
 import com.sliit.goldenpalmresort.model.Photo;
+import com.sliit.goldenpalmresort.service.PhotoFileSender;
+import com.sliit.goldenpalmresort.service.PhotoRenditions;
 import com.sliit.goldenpalmresort.service.PhotoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.Map;
 import java.util.HashMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/photos")
@@ -27,9 +33,15 @@ public class PhotoController {
     @Autowired
     private PhotoService photoService;
     
+    @Autowired
+    private PhotoFileSender photoFileSender;
+    
     @GetMapping("/rooms/{roomId}")
-    public ResponseEntity<List<PhotoResponse>> getRoomPhotos(@PathVariable Long roomId) {
+    public ResponseEntity<List<?>> getRoomPhotos(@PathVariable Long roomId, @RequestParam(required = false) String fields) {
         try {
+            if (fields != null && !fields.isBlank()) {
+                return ResponseEntity.ok(photoService.getPhotoFields("roomId", String.valueOf(roomId), fields));
+            }
             List<PhotoResponse> photos = photoService.getRoomPhotos(roomId);
             return ResponseEntity.ok(photos);
         } catch (Exception e) {
@@ -38,8 +50,11 @@ public class PhotoController {
     }
     
     @GetMapping("/event-spaces/{eventSpaceId}")
-    public ResponseEntity<List<PhotoResponse>> getEventSpacePhotos(@PathVariable Long eventSpaceId) {
+    public ResponseEntity<List<?>> getEventSpacePhotos(@PathVariable Long eventSpaceId, @RequestParam(required = false) String fields) {
         try {
+            if (fields != null && !fields.isBlank()) {
+                return ResponseEntity.ok(photoService.getPhotoFields("eventSpaceId", String.valueOf(eventSpaceId), fields));
+            }
             List<PhotoResponse> photos = photoService.getEventSpacePhotos(eventSpaceId);
             return ResponseEntity.ok(photos);
         } catch (Exception e) {
@@ -102,17 +117,55 @@ public class PhotoController {
     }
     
     @GetMapping("/{photoId}/download")
-    public ResponseEntity<byte[]> downloadPhoto(@PathVariable Long photoId) {
+    public ResponseEntity<Resource> downloadPhoto(@PathVariable Long photoId,
+                                                  @RequestParam(required = false) String size,
+                                                  @RequestParam(required = false) String v,
+                                                  HttpServletRequest request,
+                                                  HttpServletResponse servletResponse) {
         try {
-            Photo photo = photoService.getPhotoById(photoId);
-            if (photo == null || photo.getPhotoData() == null) {
+            PhotoRenditions.Size rendition;
+            try {
+                rendition = PhotoRenditions.Size.parse(size);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            // Cached metadata: a cache hit or a 304 never reads the photo document
+            Photo photo = photoService.getPhotoForDownload(photoId);
+            if (photo == null) {
                 return ResponseEntity.notFound().build();
             }
             
-            return ResponseEntity.ok()
+            // Spring answers If-None-Match / If-Modified-Since with 304 and Range with 206 from these
+            // headers; the body is streamed from storage only when it is actually written
+            PhotoRenditions.Content content = photoService.resolveContent(photo, rendition);
+            String eTag = content.contentHash() != null
+                    ? "\"" + content.contentHash() + "\""
+                    : "W/\"" + photo.getId() + "-" + (rendition != null ? rendition.key() : "original") + "-" + content.length() + "\"";
+            // A URL carrying the hash of the size it names never changes meaning. Only cache it for good
+            // when that exact body is served, not the original standing in for a missing rendition.
+            boolean versioned = v != null && v.equals(PhotoService.contentHash(photo, rendition))
+                    && v.equals(content.contentHash());
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + photo.getFileName() + "\"")
-                    .contentType(MediaType.parseMediaType(photo.getContentType()))
-                    .body(photo.getPhotoData());
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(MediaType.parseMediaType(content.contentType()))
+                    .eTag(eTag)
+                    .cacheControl(versioned
+                            ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                            : CacheControl.noCache().cachePublic());
+            long lastModified = PhotoService.lastModified(photo);
+            if (lastModified >= 0) {
+                response.lastModified(lastModified);
+            }
+            ResponseEntity<Resource> entity = response.body(photoService.contentResource(photo, content));
+            
+            // Filesystem storage: sendfile / transferTo instead of copying through the JVM
+            Path file = photoService.localFile(content);
+            if (file != null && photoFileSender.send(request, servletResponse, file, entity.getHeaders())) {
+                return null;
+            }
+            return entity;
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
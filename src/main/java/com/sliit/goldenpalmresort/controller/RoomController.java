@@ -1,12 +1,18 @@
 package com.sliit.goldenpalmresort.controller;
 
+import com.sliit.goldenpalmresort.dto.RoomCalendarResponse;
 import com.sliit.goldenpalmresort.model.Room;
 import com.sliit.goldenpalmresort.repository.RoomRepository;
+import com.sliit.goldenpalmresort.service.RoomAvailabilityIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -15,6 +21,9 @@ public class RoomController {
     
     @Autowired
     private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
     
     @GetMapping
     public ResponseEntity<List<Room>> getAllRooms() {
@@ -40,4 +49,27 @@ public class RoomController {
         List<Room> rooms = roomRepository.findByRoomType(roomType);
         return ResponseEntity.ok(rooms);
     }
-} 
\ No newline at end of file
+    
+    // Room x day occupancy for one month (?month=YYYY-MM, defaults to the current month)
+    @GetMapping("/availability-calendar")
+    public ResponseEntity<?> getAvailabilityCalendar(@RequestParam(required = false) String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Month must be in YYYY-MM format");
+        }
+        if (!availabilityIndex.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Availability calendar is still loading");
+        }
+
+        RoomCalendarResponse response = new RoomCalendarResponse(yearMonth.toString(), yearMonth.lengthOfMonth());
+        for (Map.Entry<Room, Long> entry : availabilityIndex.monthOccupancy(yearMonth).entrySet()) {
+            Room room = entry.getKey();
+            response.getRooms().add(new RoomCalendarResponse.RoomRow(room.getId(), room.getRoomNumber(),
+                    room.getRoomType(), room.getCapacity(),
+                    room.getStatus() != null ? room.getStatus().name() : null, entry.getValue()));
+        }
+        return ResponseEntity.ok(response);
+    }
+} 
@@ -0,0 +1,50 @@
+package com.sliit.goldenpalmresort.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One feasible stay for a room type near the dates the guest asked for
+public class AlternativeStayResponse {
+
+    private String roomType;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer nights;
+    private Integer daysFromRequested;
+    private Integer roomsAvailable;
+    private BigDecimal lowestBasePrice;
+
+    // Constructors
+    public AlternativeStayResponse() {}
+
+    public AlternativeStayResponse(String roomType, LocalDate checkInDate, Integer nights, Integer daysFromRequested) {
+        this.roomType = roomType;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkInDate.plusDays(nights);
+        this.nights = nights;
+        this.daysFromRequested = daysFromRequested;
+        this.roomsAvailable = 0;
+    }
+
+    // Getters and Setters
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
+
+    public LocalDate getCheckInDate() { return checkInDate; }
+    public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+    public LocalDate getCheckOutDate() { return checkOutDate; }
+    public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+
+    public Integer getNights() { return nights; }
+    public void setNights(Integer nights) { this.nights = nights; }
+
+    public Integer getDaysFromRequested() { return daysFromRequested; }
+    public void setDaysFromRequested(Integer daysFromRequested) { this.daysFromRequested = daysFromRequested; }
+
+    public Integer getRoomsAvailable() { return roomsAvailable; }
+    public void setRoomsAvailable(Integer roomsAvailable) { this.roomsAvailable = roomsAvailable; }
+
+    public BigDecimal getLowestBasePrice() { return lowestBasePrice; }
+    public void setLowestBasePrice(BigDecimal lowestBasePrice) { this.lowestBasePrice = lowestBasePrice; }
+}
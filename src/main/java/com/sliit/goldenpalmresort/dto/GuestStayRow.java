@@ -0,0 +1,69 @@
+package com.sliit.goldenpalmresort.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.Room;
+import com.sliit.goldenpalmresort.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// One row of the front desk check-in, check-out and current-guest lists
+public record GuestStayRow(
+        String bookingReference,
+        String guestName,
+        String guestEmail,
+        String guestPhone,
+        String roomNumber,
+        String roomType,
+        Integer floorNumber,
+        String checkInDate,
+        String checkOutDate,
+        int guestCount,
+        BigDecimal totalAmount,
+        String specialRequests,
+        String status,
+        String createdAt,
+        String updatedAt,
+        long stayDuration,
+        // Only set for guests currently in house
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long daysElapsed,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long remainingDays) {
+
+    public static GuestStayRow of(Booking booking, User user, Room room, boolean inHouse) {
+        boolean knownUser = user != null && user.getFirstName() != null && user.getLastName() != null;
+        boolean knownRoom = room != null && room.getRoomNumber() != null;
+
+        long stayDuration = 0;
+        Long daysElapsed = inHouse ? 0L : null;
+        Long remainingDays = inHouse ? 0L : null;
+        if (booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
+            stayDuration = ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
+            if (inHouse) {
+                daysElapsed = ChronoUnit.DAYS.between(booking.getCheckInDate(), LocalDate.now());
+                remainingDays = Math.max(0, stayDuration - daysElapsed);
+            }
+        }
+
+        return new GuestStayRow(
+                booking.getBookingReference(),
+                knownUser ? user.getFirstName() + " " + user.getLastName() : "Unknown Guest",
+                knownUser && user.getEmail() != null ? user.getEmail() : "",
+                knownUser && user.getPhone() != null ? user.getPhone() : "",
+                knownRoom ? room.getRoomNumber() : "Unknown",
+                knownRoom && room.getRoomType() != null ? room.getRoomType() : "",
+                knownRoom ? room.getFloorNumber() : null,
+                booking.getCheckInDate() != null ? booking.getCheckInDate().toString() : "",
+                booking.getCheckOutDate() != null ? booking.getCheckOutDate().toString() : "",
+                booking.getGuestCount() != null ? booking.getGuestCount() : 0,
+                booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO,
+                booking.getSpecialRequests() != null ? booking.getSpecialRequests() : "",
+                booking.getStatus() != null ? booking.getStatus().name() : "UNKNOWN",
+                booking.getCreatedAt() != null ? booking.getCreatedAt().toString() : "",
+                booking.getUpdatedAt() != null ? booking.getUpdatedAt().toString() : "",
+                stayDuration,
+                daysElapsed,
+                remainingDays);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sliit.goldenpalmresort.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sliit.goldenpalmresort.model.Notification;
+
+import java.time.LocalDateTime;
+
+// Notification as listed to its recipient
+public record NotificationView(
+        String id,
+        Notification.NotificationType type,
+        String title,
+        String message,
+        String referenceId,
+        String referenceType,
+        @JsonProperty("isRead") boolean read,
+        LocalDateTime createdAt,
+        LocalDateTime readAt,
+        String sentBy) {
+
+    public static NotificationView of(Notification notification) {
+        return new NotificationView(
+                notification.getId(),
+                notification.getType(),
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getReferenceId(),
+                notification.getReferenceType(),
+                notification.isRead(),
+                notification.getCreatedAt(),
+                notification.getReadAt(),
+                notification.getSentBy());
+    }
+}
@@ -0,0 +1,64 @@
+package com.sliit.goldenpalmresort.dto;
+
+import com.sliit.goldenpalmresort.model.Payment;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One row of a payment aggregation: how many payments share a status and method, and their summed amount
+public class PaymentBreakdown {
+
+    private Payment.PaymentStatus paymentStatus;
+    private Payment.PaymentMethod paymentMethod;
+    private long count;
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // Constructors
+    public PaymentBreakdown() {}
+
+    // Helpers for folding rows into report figures
+    public static long countOf(List<PaymentBreakdown> rows) {
+        return rows.stream().mapToLong(PaymentBreakdown::getCount).sum();
+    }
+
+    public static long countOf(List<PaymentBreakdown> rows, Payment.PaymentStatus status) {
+        return rows.stream().filter(row -> row.getPaymentStatus() == status).mapToLong(PaymentBreakdown::getCount).sum();
+    }
+
+    public static BigDecimal totalOf(List<PaymentBreakdown> rows, Payment.PaymentStatus status) {
+        return rows.stream().filter(row -> row.getPaymentStatus() == status)
+                .map(PaymentBreakdown::getTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // { method: { count, total } } across all statuses
+    public static Map<String, Map<String, Object>> byMethod(List<PaymentBreakdown> rows) {
+        Map<String, Map<String, Object>> methods = new LinkedHashMap<>();
+        for (PaymentBreakdown row : rows) {
+            String method = row.getPaymentMethod() != null ? row.getPaymentMethod().name() : "UNKNOWN";
+            Map<String, Object> entry = methods.computeIfAbsent(method, key -> {
+                Map<String, Object> fresh = new LinkedHashMap<>();
+                fresh.put("count", 0L);
+                fresh.put("total", BigDecimal.ZERO);
+                return fresh;
+            });
+            entry.put("count", (Long) entry.get("count") + row.getCount());
+            entry.put("total", ((BigDecimal) entry.get("total")).add(row.getTotal()));
+        }
+        return methods;
+    }
+
+    // Getters and Setters
+    public Payment.PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(Payment.PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public Payment.PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(Payment.PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total != null ? total : BigDecimal.ZERO; }
+}
@@ -0,0 +1,21 @@
+package com.sliit.goldenpalmresort.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of the two-facet payment aggregation: rows for the report period and for all payments
+public class PaymentSummary {
+
+    private List<PaymentBreakdown> period = new ArrayList<>();
+    private List<PaymentBreakdown> overall = new ArrayList<>();
+
+    // Constructors
+    public PaymentSummary() {}
+
+    // Getters and Setters
+    public List<PaymentBreakdown> getPeriod() { return period; }
+    public void setPeriod(List<PaymentBreakdown> period) { this.period = period != null ? period : new ArrayList<>(); }
+
+    public List<PaymentBreakdown> getOverall() { return overall; }
+    public void setOverall(List<PaymentBreakdown> overall) { this.overall = overall != null ? overall : new ArrayList<>(); }
+}
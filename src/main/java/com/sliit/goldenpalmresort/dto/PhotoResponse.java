@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +20,7 @@ public class PhotoResponse {
     private String uploadedBy;
     private String uploadedAt;
     private String downloadUrl;
+    private Map<String, String> renditionUrls; // size -> versioned URL, for renditions already generated
     
     // Getters and Setters
     public Long getId() { return id; }
@@ -49,4 +52,7 @@ public class PhotoResponse {
     
     public String getDownloadUrl() { return downloadUrl; }
     public void setDownloadUrl(String downloadUrl) { this.downloadUrl = downloadUrl; }
+    
+    public Map<String, String> getRenditionUrls() { return renditionUrls; }
+    public void setRenditionUrls(Map<String, String> renditionUrls) { this.renditionUrls = renditionUrls; }
 } 
\ No newline at end of file
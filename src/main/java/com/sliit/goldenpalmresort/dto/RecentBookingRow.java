@@ -0,0 +1,44 @@
+package com.sliit.goldenpalmresort.dto;
+
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.EventBooking;
+import com.sliit.goldenpalmresort.model.User;
+
+import java.math.BigDecimal;
+
+// One row of the admin recent-bookings widget; event bookings report the event date as both dates
+public record RecentBookingRow(
+        String bookingReference,
+        String guestName,
+        String type,
+        String checkInDate,
+        String checkOutDate,
+        String status,
+        BigDecimal totalAmount) {
+
+    public static RecentBookingRow of(Booking booking, User user) {
+        return new RecentBookingRow(
+                booking.getBookingReference(),
+                guestName(user),
+                "Room",
+                booking.getCheckInDate().toString(),
+                booking.getCheckOutDate().toString(),
+                booking.getStatus().name(),
+                booking.getTotalAmount());
+    }
+
+    public static RecentBookingRow of(EventBooking booking, User user) {
+        return new RecentBookingRow(
+                booking.getBookingReference(),
+                guestName(user),
+                "Event",
+                booking.getEventDate().toString(),
+                booking.getEventDate().toString(),
+                booking.getStatus().name(),
+                booking.getTotalAmount());
+    }
+
+    private static String guestName(User user) {
+        return user != null ? user.getFirstName() + " " + user.getLastName() : "Unknown Guest";
+    }
+}
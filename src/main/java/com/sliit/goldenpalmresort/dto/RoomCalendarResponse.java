@@ -0,0 +1,67 @@
+package com.sliit.goldenpalmresort.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Room x day occupancy grid for one month. Each room's occupiedMask has bit (day - 1) set when that night is taken.
+public class RoomCalendarResponse {
+    private String month;
+    private Integer daysInMonth;
+    private List<RoomRow> rooms = new ArrayList<>();
+
+    public RoomCalendarResponse() {}
+
+    public RoomCalendarResponse(String month, Integer daysInMonth) {
+        this.month = month;
+        this.daysInMonth = daysInMonth;
+    }
+
+    // Getters and Setters
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+
+    public Integer getDaysInMonth() { return daysInMonth; }
+    public void setDaysInMonth(Integer daysInMonth) { this.daysInMonth = daysInMonth; }
+
+    public List<RoomRow> getRooms() { return rooms; }
+    public void setRooms(List<RoomRow> rooms) { this.rooms = rooms; }
+
+    public static class RoomRow {
+        private String roomId;
+        private String roomNumber;
+        private String roomType;
+        private Integer capacity;
+        private String status;
+        private Long occupiedMask;
+
+        public RoomRow() {}
+
+        public RoomRow(String roomId, String roomNumber, String roomType, Integer capacity, String status, Long occupiedMask) {
+            this.roomId = roomId;
+            this.roomNumber = roomNumber;
+            this.roomType = roomType;
+            this.capacity = capacity;
+            this.status = status;
+            this.occupiedMask = occupiedMask;
+        }
+
+        // Getters and Setters
+        public String getRoomId() { return roomId; }
+        public void setRoomId(String roomId) { this.roomId = roomId; }
+
+        public String getRoomNumber() { return roomNumber; }
+        public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+        public String getRoomType() { return roomType; }
+        public void setRoomType(String roomType) { this.roomType = roomType; }
+
+        public Integer getCapacity() { return capacity; }
+        public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public Long getOccupiedMask() { return occupiedMask; }
+        public void setOccupiedMask(Long occupiedMask) { this.occupiedMask = occupiedMask; }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sliit.goldenpalmresort.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A bounded worker pool is full; callers answer 503 with a Retry-After of retryAfterSeconds
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServerBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServerBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,13 +1,14 @@
 package com.sliit.goldenpalmresort.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Document(collection = "bookings")
-public class Booking {
+public class Booking implements CountedStatus {
     
     @Id
     private String id;
@@ -19,6 +20,9 @@ public class Booking {
     private Integer guestCount;
     private BigDecimal totalAmount;
     private BookingStatus status = BookingStatus.PENDING;
+    // status as loaded or last saved, for the status counters; never persisted
+    @Transient
+    private String storedStatus;
     private String specialRequests;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -98,4 +102,13 @@ public class Booking {
     
     public String getCreatedBy() { return createdBy; }
     public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+    
+    @Override
+    public Enum<?> countedValue() { return status; }
+    
+    @Override
+    public String storedValue() { return storedStatus; }
+    
+    @Override
+    public void markStored(String value) { this.storedStatus = value; }
 }
\ No newline at end of file
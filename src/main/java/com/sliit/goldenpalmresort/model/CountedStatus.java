@@ -0,0 +1,18 @@
+package com.sliit.goldenpalmresort.model;
+
+/**
+ * An entity whose status (or role) is counted per value by the analytics counters.
+ *
+ * The value the entity was loaded or last saved with travels on it in a transient field,
+ * so a save can move the counter from the old value to the new one without re-reading
+ * the stored document.
+ */
+public interface CountedStatus {
+
+    Enum<?> countedValue();
+
+    // Value as loaded or last saved; null for an entity that never came from the database
+    String storedValue();
+
+    void markStored(String value);
+}
@@ -1,13 +1,14 @@
 package com.sliit.goldenpalmresort.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Document(collection = "event_bookings")
-public class EventBooking {
+public class EventBooking implements CountedStatus {
     
     @Id
     private String id;
@@ -21,6 +22,9 @@ public class EventBooking {
     private Integer expectedGuests;
     private BigDecimal totalAmount;
     private EventBookingStatus status = EventBookingStatus.PENDING;
+    // status as loaded or last saved, for the status counters; never persisted
+    @Transient
+    private String storedStatus;
     private String setupRequirements;
     private boolean cateringRequired = false;
     private boolean audioVisualRequired = false;
@@ -153,4 +157,13 @@ public class EventBooking {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public Enum<?> countedValue() { return status; }
+    
+    @Override
+    public String storedValue() { return storedStatus; }
+    
+    @Override
+    public void markStored(String value) { this.storedStatus = value; }
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.sliit.goldenpalmresort.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One document per room per night; the unique index is what stops two nodes selling the same night
+@Document(collection = "night_claims")
+@CompoundIndex(name = "room_night_unique", def = "{ 'roomId': 1, 'epochDay': 1 }", unique = true)
+public class NightClaim {
+
+    @Id
+    private String id;
+    private String roomId;
+    private long epochDay;
+    @Indexed(name = "booking_reference")
+    private String bookingReference;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public NightClaim() {}
+
+    public NightClaim(String roomId, LocalDate night, String bookingReference) {
+        this.roomId = roomId;
+        this.epochDay = night.toEpochDay();
+        this.bookingReference = bookingReference;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRoomId() { return roomId; }
+    public void setRoomId(String roomId) { this.roomId = roomId; }
+
+    public long getEpochDay() { return epochDay; }
+    public void setEpochDay(long epochDay) { this.epochDay = epochDay; }
+
+    public String getBookingReference() { return bookingReference; }
+    public void setBookingReference(String bookingReference) { this.bookingReference = bookingReference; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,12 +1,13 @@
 package com.sliit.goldenpalmresort.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Document(collection = "payments")
-public class Payment {
+public class Payment implements CountedStatus {
     
     @Id
     private String id;
@@ -15,6 +16,9 @@ public class Payment {
     private BigDecimal amount;
     private PaymentMethod paymentMethod;
     private PaymentStatus paymentStatus = PaymentStatus.PENDING;
+    // paymentStatus as loaded or last saved, for the status counters; never persisted
+    @Transient
+    private String storedPaymentStatus;
     private String transactionId;
     private LocalDateTime paymentDate;
     private String receiptUrl;
@@ -111,4 +115,13 @@ public class Payment {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public Enum<?> countedValue() { return paymentStatus; }
+    
+    @Override
+    public String storedValue() { return storedPaymentStatus; }
+    
+    @Override
+    public void markStored(String value) { this.storedPaymentStatus = value; }
 } 
\ No newline at end of file
@@ -20,7 +20,9 @@ public class Photo {
     private String contentType;
     private Long fileSize;
     private String filePath;
-    private byte[] photoData;
+    private String storageKey; // Key in PhotoStorage
+    private String contentHash; // SHA-256 of the original, hex; used as ETag and URL version
+    private byte[] photoData; // Legacy inline image, only on photos stored before PhotoStorage
     private Integer displayOrder;
     @JsonIgnore
     private String roomId;
@@ -29,4 +31,5 @@ public class Photo {
     private Boolean isActive = true;
     private String uploadedBy;
     private java.time.LocalDateTime uploadedAt;
+    private java.util.Map<String, PhotoRendition> renditions = new java.util.HashMap<>(); // keyed by size name
 }
@@ -0,0 +1,19 @@
+package com.sliit.goldenpalmresort.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A resized copy of a photo, embedded in the photo document under renditions.<size>
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoRendition {
+
+    private String storageKey; // Same as the photo's own key when the original is already small enough
+    private String contentType;
+    private Integer width;
+    private Integer height;
+    private Long fileSize;
+    private String contentHash; // SHA-256 of the rendition bytes, hex
+}
@@ -1,12 +1,13 @@
 package com.sliit.goldenpalmresort.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Document(collection = "refund_requests")
-public class RefundRequest {
+public class RefundRequest implements CountedStatus {
     
     @Id
     private String id;
@@ -20,6 +21,9 @@ public class RefundRequest {
     private String bankBranch;
     private String accountHolderName;
     private RefundStatus status = RefundStatus.PENDING;
+    // status as loaded or last saved, for the status counters; never persisted
+    @Transient
+    private String storedStatus;
     private String reason;
     private String notes;
     private String processedBy;
@@ -94,4 +98,13 @@ public class RefundRequest {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public Enum<?> countedValue() { return status; }
+    
+    @Override
+    public String storedValue() { return storedStatus; }
+    
+    @Override
+    public void markStored(String value) { this.storedStatus = value; }
 }
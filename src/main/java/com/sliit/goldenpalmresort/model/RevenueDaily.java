@@ -0,0 +1,69 @@
+package com.sliit.goldenpalmresort.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Daily revenue rollup per payment method. Amounts are kept in cents so they can be $inc'ed atomically.
+@Document(collection = "revenue_daily")
+public class RevenueDaily {
+
+    @Id
+    private String id; // "yyyy-MM-dd|METHOD"
+    @Indexed(name = "revenue_date")
+    private LocalDate date;
+    private Payment.PaymentMethod paymentMethod;
+    private long completedCents;
+    private long completedCount;
+    private long refundedCents;
+    private long refundedCount;
+    private long pendingCents;
+    private long pendingCount;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public RevenueDaily() {}
+
+    public RevenueDaily(LocalDate date, Payment.PaymentMethod paymentMethod) {
+        this.id = key(date, paymentMethod);
+        this.date = date;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public static String key(LocalDate date, Payment.PaymentMethod paymentMethod) {
+        return date + "|" + (paymentMethod != null ? paymentMethod.name() : "UNKNOWN");
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Payment.PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(Payment.PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public long getCompletedCents() { return completedCents; }
+    public void setCompletedCents(long completedCents) { this.completedCents = completedCents; }
+
+    public long getCompletedCount() { return completedCount; }
+    public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+
+    public long getRefundedCents() { return refundedCents; }
+    public void setRefundedCents(long refundedCents) { this.refundedCents = refundedCents; }
+
+    public long getRefundedCount() { return refundedCount; }
+    public void setRefundedCount(long refundedCount) { this.refundedCount = refundedCount; }
+
+    public long getPendingCents() { return pendingCents; }
+    public void setPendingCents(long pendingCents) { this.pendingCents = pendingCents; }
+
+    public long getPendingCount() { return pendingCount; }
+    public void setPendingCount(long pendingCount) { this.pendingCount = pendingCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
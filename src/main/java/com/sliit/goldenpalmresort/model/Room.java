@@ -1,13 +1,14 @@
 package com.sliit.goldenpalmresort.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.ArrayList;
 
 @Document(collection = "rooms")
-public class Room {
+public class Room implements CountedStatus {
     
     @Id
     private String id;
@@ -19,6 +20,9 @@ public class Room {
     private String description;
     private String amenities;
     private RoomStatus status = RoomStatus.AVAILABLE;
+    // status as loaded or last saved, for the status counters; never persisted
+    @Transient
+    private String storedStatus;
     private boolean isActive = true;
     private String imageUrls; // Comma-separated URLs
     private List<String> photoIds = new ArrayList<>();
@@ -74,4 +78,13 @@ public class Room {
     
     public List<String> getPhotoIds() { return photoIds; }
     public void setPhotoIds(List<String> photoIds) { this.photoIds = photoIds; }
+    
+    @Override
+    public Enum<?> countedValue() { return status; }
+    
+    @Override
+    public String storedValue() { return storedStatus; }
+    
+    @Override
+    public void markStored(String value) { this.storedStatus = value; }
 } 
\ No newline at end of file
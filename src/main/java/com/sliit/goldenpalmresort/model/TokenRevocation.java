@@ -0,0 +1,28 @@
+package com.sliit.goldenpalmresort.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+// Tokens of a user older than minVersion are rejected; Mongo drops the row once they have all expired
+@Document(collection = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    private String id; // User id
+    private long minVersion;
+    private Date expiresAt;
+
+    // Constructors
+    public TokenRevocation() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public long getMinVersion() { return minVersion; }
+    public void setMinVersion(long minVersion) { this.minVersion = minVersion; }
+
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,6 +1,7 @@
 package com.sliit.goldenpalmresort.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,7 +12,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Document(collection = "users")
-public class User implements UserDetails {
+public class User implements UserDetails, CountedStatus {
     
     @Id
     private String id;
@@ -24,10 +25,15 @@ public class User implements UserDetails {
     private String lastName;
     private String phone;
     private UserRole role;
+    // role as loaded or last saved, for the status counters; never persisted
+    @Transient
+    private String storedRole;
     private boolean isActive = true;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime lastLogin;
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private long tokenVersion; // Embedded in issued tokens; bumped to revoke them all
     
     public User() {}
     
@@ -111,6 +117,9 @@ public class User implements UserDetails {
     public LocalDateTime getLastLogin() { return lastLogin; }
     public void setLastLogin(LocalDateTime lastLogin) { this.lastLogin = lastLogin; }
     
+    public long getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(long tokenVersion) { this.tokenVersion = tokenVersion; }
+    
     // Helper method to check if user is online (logged in within last 5 minutes)
     @com.fasterxml.jackson.annotation.JsonIgnore
     public boolean isOnline() {
@@ -118,6 +127,15 @@ public class User implements UserDetails {
         return lastLogin.isAfter(LocalDateTime.now().minusMinutes(5));
     }
     
+    @Override
+    public Enum<?> countedValue() { return role; }
+    
+    @Override
+    public String storedValue() { return storedRole; }
+    
+    @Override
+    public void markStored(String value) { this.storedRole = value; }
+    
     public enum UserRole {
         GUEST, ADMIN, MANAGER, FRONT_DESK, PAYMENT_OFFICER, BACK_OFFICE_STAFF
     }
@@ -17,6 +17,18 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
     
     List<Booking> findByStatus(Booking.BookingStatus status);
     
+    List<Booking> findByCheckInDate(LocalDate checkInDate);
+    
+    long countByStatus(Booking.BookingStatus status);
+    
+    long countByCheckInDate(LocalDate checkInDate);
+    
+    long countByCheckOutDate(LocalDate checkOutDate);
+    
+    long countByCheckInDateAndStatus(LocalDate checkInDate, Booking.BookingStatus status);
+    
+    long countByCheckOutDateAndStatus(LocalDate checkOutDate, Booking.BookingStatus status);
+    
     @Query("{ 'roomId': ?0, 'status': { $ne: 'CANCELLED' }, 'checkInDate': { $lte: ?2 }, 'checkOutDate': { $gte: ?1 } }")
     List<Booking> findOverlappingBookings(
             String roomId,
@@ -33,4 +45,19 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
             Booking.BookingStatus status,
             LocalDate startDate,
             LocalDate endDate);
+            
+    // Stays that still hold nights on or after the given day, trimmed to the fields the availability index and claim ledger need
+    @Query(value = "{ 'status': { $nin: ['CANCELLED', 'CHECKED_OUT'] }, 'checkOutDate': { $gt: ?0 } }",
+           fields = "{ 'bookingReference': 1, 'roomId': 1, 'checkInDate': 1, 'checkOutDate': 1, 'status': 1 }")
+    List<Booking> findActiveStays(LocalDate fromDate);
+    
+    // Stays holding nights on or after the given day, completed ones included, for the availability index
+    @Query(value = "{ 'status': { $ne: 'CANCELLED' }, 'checkOutDate': { $gt: ?0 } }",
+           fields = "{ 'roomId': 1, 'checkInDate': 1, 'checkOutDate': 1, 'status': 1, 'updatedAt': 1 }")
+    List<Booking> findStaysSince(LocalDate fromDate);
+    
+    // Stays holding any night in [fromDate, toDate), completed ones included, for calendars of past days
+    @Query(value = "{ 'status': { $ne: 'CANCELLED' }, 'checkInDate': { $lt: ?1 }, 'checkOutDate': { $gt: ?0 } }",
+           fields = "{ 'roomId': 1, 'checkInDate': 1, 'checkOutDate': 1 }")
+    List<Booking> findStaysBetween(LocalDate fromDate, LocalDate toDate);
 }
\ No newline at end of file
@@ -31,4 +31,9 @@ public interface EventBookingRepository extends MongoRepository<EventBooking, St
     List<EventBooking> findByEventType(String eventType);
     
     List<EventBooking> findByEventDate(LocalDate eventDate);
+    
+    // Non-cancelled bookings from the given date on, trimmed to the fields the schedule index needs
+    @Query(value = "{ 'status': { $ne: 'CANCELLED' }, 'eventDate': { $gte: ?0 } }",
+           fields = "{ 'eventSpaceId': 1, 'eventDate': 1, 'startTime': 1, 'endTime': 1, 'status': 1 }")
+    List<EventBooking> findActiveSchedule(LocalDate fromDate);
 } 
\ No newline at end of file
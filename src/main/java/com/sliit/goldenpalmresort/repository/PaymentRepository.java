@@ -1,6 +1,9 @@
 package com.sliit.goldenpalmresort.repository;
 
+import com.sliit.goldenpalmresort.dto.PaymentBreakdown;
+import com.sliit.goldenpalmresort.dto.PaymentSummary;
 import com.sliit.goldenpalmresort.model.Payment;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,6 +16,12 @@ import java.util.Optional;
 @Repository
 public interface PaymentRepository extends MongoRepository<Payment, String> {
     
+    // $toDecimal keeps $sum exact for Decimal128 amounts and still reads amounts written as strings
+    String GROUP_BY_STATUS_AND_METHOD = "{ $group: { _id: { status: '$paymentStatus', method: '$paymentMethod' }, "
+            + "count: { $sum: 1 }, total: { $sum: { $toDecimal: '$amount' } } } }";
+    String FLATTEN_BREAKDOWN = "{ $project: { _id: 0, paymentStatus: '$_id.status', paymentMethod: '$_id.method', "
+            + "count: 1, total: 1 } }";
+    
     List<Payment> findByPaymentStatus(Payment.PaymentStatus status);
     
     List<Payment> findByPaymentMethod(Payment.PaymentMethod paymentMethod);
@@ -21,6 +30,8 @@ public interface PaymentRepository extends MongoRepository<Payment, String> {
     
     List<Payment> findByEventBookingId(String eventBookingId);
     
+    List<Payment> findByBookingIdAndPaymentStatus(String bookingId, Payment.PaymentStatus status);
+    
     @Query("{ 'paymentDate': { $gte: ?0, $lte: ?1 } }")
     List<Payment> findByPaymentDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
@@ -40,4 +51,39 @@ public interface PaymentRepository extends MongoRepository<Payment, String> {
     Optional<Payment> findByBookingId(String bookingId);
     
     Optional<Payment> findByEventBookingId(String eventBookingId);
-} 
\ No newline at end of file
+    
+    // Counts and sums per status and method for payments dated in the range, plus the same over all payments
+    @Aggregation(pipeline = {
+        "{ $facet: { "
+            + "period: [ { $match: { paymentDate: { $gte: ?0, $lte: ?1 } } }, " + GROUP_BY_STATUS_AND_METHOD + ", " + FLATTEN_BREAKDOWN + " ], "
+            + "overall: [ " + GROUP_BY_STATUS_AND_METHOD + ", " + FLATTEN_BREAKDOWN + " ] } }"
+    })
+    PaymentSummary summarizePayments(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Aggregation(pipeline = {
+        "{ $match: { paymentDate: { $gte: ?0, $lte: ?1 } } }",
+        GROUP_BY_STATUS_AND_METHOD,
+        FLATTEN_BREAKDOWN
+    })
+    List<PaymentBreakdown> summarizePaymentsBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Aggregation(pipeline = {
+        GROUP_BY_STATUS_AND_METHOD,
+        FLATTEN_BREAKDOWN
+    })
+    List<PaymentBreakdown> summarizeAllPayments();
+    
+    // Null when no payment matches
+    @Aggregation(pipeline = {
+        "{ $match: { paymentStatus: ?0 } }",
+        "{ $group: { _id: null, total: { $sum: { $toDecimal: '$amount' } } } }"
+    })
+    BigDecimal sumAmountByStatus(Payment.PaymentStatus status);
+    
+    // Null when no payment matches
+    @Aggregation(pipeline = {
+        "{ $match: { paymentStatus: 'COMPLETED', paymentDate: { $gte: ?0, $lte: ?1 } } }",
+        "{ $group: { _id: null, total: { $sum: { $toDecimal: '$amount' } } } }"
+    })
+    BigDecimal sumCompletedAmountByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+}
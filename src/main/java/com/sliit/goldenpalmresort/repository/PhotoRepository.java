@@ -10,10 +10,11 @@ import java.util.List;
 @Repository
 public interface PhotoRepository extends MongoRepository<Photo, String> {
     
-    @Query("{ 'roomId': ?0, 'isActive': true }")
+    // Metadata listings never read the image bytes
+    @Query(value = "{ 'roomId': ?0, 'isActive': true }", fields = "{ 'photoData': 0 }")
     List<Photo> findByRoomIdOrderByDisplayOrder(String roomId);
     
-    @Query("{ 'eventSpaceId': ?0, 'isActive': true }")
+    @Query(value = "{ 'eventSpaceId': ?0, 'isActive': true }", fields = "{ 'photoData': 0 }")
     List<Photo> findByEventSpaceIdOrderByDisplayOrder(String eventSpaceId);
     
     long countByRoomIdAndIsActiveTrue(String roomId);
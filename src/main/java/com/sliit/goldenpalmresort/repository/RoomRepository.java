@@ -13,6 +13,8 @@ public interface RoomRepository extends MongoRepository<Room, String> {
     
     List<Room> findByStatus(Room.RoomStatus status);
     
+    long countByStatus(Room.RoomStatus status);
+    
     List<Room> findByRoomType(String roomType);
     
     List<Room> findByIsActiveTrue();
@@ -3,13 +3,15 @@ package com.sliit.goldenpalmresort.repository;
 import com.sliit.goldenpalmresort.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     Optional<User> findByUsername(String username);
     
@@ -21,6 +23,12 @@ public interface UserRepository extends MongoRepository<User, String> {
     
     List<User> findByRole(User.UserRole role);
     
+    long countByRole(User.UserRole role);
+    
     @Query("{ 'isActive': true }")
     List<User> findAllActiveUsers();
+    
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'lastLogin': ?1 } }")
+    void updateLastLogin(String id, LocalDateTime lastLogin);
 } 
\ No newline at end of file
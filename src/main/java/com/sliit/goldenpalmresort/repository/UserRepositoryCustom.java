@@ -0,0 +1,14 @@
+package com.sliit.goldenpalmresort.repository;
+
+import com.sliit.goldenpalmresort.model.User;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Writes an edited, previously loaded user back without its tokenVersion. A whole-document save
+     * would put back the version read earlier and undo a revoke made in between, so the version is
+     * only ever changed by TokenVersions' $inc. Fires the usual save events, so listeners such as
+     * the per-role counters see the write like any other save.
+     */
+    void saveProfile(User user);
+}
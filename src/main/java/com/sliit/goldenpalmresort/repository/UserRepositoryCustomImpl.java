@@ -0,0 +1,52 @@
+package com.sliit.goldenpalmresort.repository;
+
+import com.sliit.goldenpalmresort.model.User;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+// $set of every mapped field but _id and tokenVersion, wrapped in the events a save would fire
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String TOKEN_VERSION = "tokenVersion";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void saveProfile(User user) {
+        String collection = mongoTemplate.getCollectionName(User.class);
+        Document document = new Document();
+        mongoTemplate.getConverter().write(user, document);
+        document.remove(TOKEN_VERSION);
+        eventPublisher.publishEvent(new BeforeSaveEvent<>(user, document, collection));
+
+        Update update = new Update();
+        for (MongoPersistentProperty property : mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(User.class)) {
+            String field = property.getFieldName();
+            if (property.isIdProperty() || field.equals(TOKEN_VERSION)) {
+                continue;
+            }
+            if (document.containsKey(field)) {
+                update.set(field, document.get(field));
+            } else {
+                update.unset(field);
+            }
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getId())), update, collection);
+
+        eventPublisher.publishEvent(new AfterSaveEvent<>(user, document, collection));
+    }
+}
@@ -3,6 +3,7 @@ package com.sliit.goldenpalmresort.service;
 import com.sliit.goldenpalmresort.dto.LoginRequest;
 import com.sliit.goldenpalmresort.dto.LoginResponse;
 import com.sliit.goldenpalmresort.dto.RegisterRequest;
+import com.sliit.goldenpalmresort.exception.ServerBusyException;
 import com.sliit.goldenpalmresort.model.User;
 import com.sliit.goldenpalmresort.repository.UserRepository;
 import com.sliit.goldenpalmresort.service.JwtService;
@@ -22,6 +23,12 @@ public class AuthService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private PasswordHashing passwordHashing;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -33,19 +40,22 @@ public class AuthService {
 
     public LoginResponse login(LoginRequest loginRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // BCrypt runs on the bounded hashing pool
+            Authentication authentication = passwordHashing.call(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-            );
+            ));
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtService.generateToken(userDetails.getUsername());
+            String token = jwtService.generateToken((User) userDetails);
 
-            Optional<User> user = userRepository.findByUsername(userDetails.getUsername());
+            Optional<User> user = userDirectory.findByUsername(userDetails.getUsername());
             if (user.isPresent()) {
                 return new LoginResponse(token, user.get(), "Login successful", true);
             } else {
                 return new LoginResponse("User not found", false);
             }
+        } catch (ServerBusyException e) {
+            throw e;
         } catch (Exception e) {
             return new LoginResponse("Invalid username or password", false);
         }
@@ -66,7 +76,7 @@ public class AuthService {
         User user = new User();
         user.setUsername(registerRequest.getUsername());
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHashing.call(() -> passwordEncoder.encode(registerRequest.getPassword())));
         user.setFirstName(registerRequest.getFirstName());
         user.setLastName(registerRequest.getLastName());
         user.setPhone(registerRequest.getPhone());
@@ -75,7 +85,7 @@ public class AuthService {
 
         try {
             user = userRepository.save(user);
-            String token = jwtService.generateToken(user.getUsername());
+            String token = jwtService.generateToken(user);
             return new LoginResponse(token, user, "Registration successful", true);
         } catch (Exception e) {
             return new LoginResponse("Registration failed: " + e.getMessage(), false);
@@ -83,16 +93,16 @@ public class AuthService {
     }
 
     public boolean validateToken(String token, String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        Optional<User> userOpt = userDirectory.findByUsername(username);
         if (userOpt.isEmpty()) return false;
         return jwtService.isTokenValid(token, userOpt.get());
     }
 
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userDirectory.findByUsername(username);
     }
 
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userDirectory.findByEmail(email);
     }
 }
\ No newline at end of file
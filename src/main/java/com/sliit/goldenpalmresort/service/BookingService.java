@@ -1,5 +1,6 @@
 package com.sliit.goldenpalmresort.service;
 
+import com.sliit.goldenpalmresort.dto.AlternativeStayResponse;
 import com.sliit.goldenpalmresort.dto.BookingRequest;
 import com.sliit.goldenpalmresort.dto.BookingResponse;
 import com.sliit.goldenpalmresort.exception.ResourceNotFoundException;
@@ -11,7 +12,6 @@ import com.sliit.goldenpalmresort.model.Booking.BookingStatus;
 import com.sliit.goldenpalmresort.repository.BookingRepository;
 import com.sliit.goldenpalmresort.repository.PaymentRepository;
 import com.sliit.goldenpalmresort.repository.RoomRepository;
-import com.sliit.goldenpalmresort.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,24 +20,42 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
     
+    // Widest +/- window the flexible-dates search will scan
+    private static final int MAX_FLEX_DAYS = 30;
+
     private final BookingRepository bookingRepository;
     private final RoomRepository roomRepository;
-    private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
     private final PaymentRepository paymentRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomLockStripes roomLocks;
+    private final NightClaimService nightClaims;
 
     public BookingService(BookingRepository bookingRepository, RoomRepository roomRepository, 
-                         UserRepository userRepository, PaymentRepository paymentRepository) {
+                         UserDirectory userDirectory, PaymentRepository paymentRepository,
+                         RoomAvailabilityIndex availabilityIndex, RoomLockStripes roomLocks,
+                         NightClaimService nightClaims) {
         this.bookingRepository = bookingRepository;
         this.roomRepository = roomRepository;
-        this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
         this.paymentRepository = paymentRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.roomLocks = roomLocks;
+        this.nightClaims = nightClaims;
     }
 
     @Transactional
@@ -46,7 +64,7 @@ public class BookingService {
         validateBookingRequest(request);
         
         // Get current user (the person making the booking, could be admin/front desk)
-        User currentUser = userRepository.findByUsername(username)
+        User currentUser = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
         
         // Use current user as the guest who owns this booking
@@ -56,22 +74,11 @@ public class BookingService {
         Room room = roomRepository.findById(request.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + request.getRoomId()));
         
-        // Check room availability
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                request.getRoomId(), 
-                request.getCheckInDate(), 
-                request.getCheckOutDate()
-        );
-        
-        if (!overlappingBookings.isEmpty()) {
-            throw new IllegalStateException("Room is not available for the selected dates");
-        }
-        
         // Calculate total amount
         long numberOfNights = ChronoUnit.DAYS.between(request.getCheckInDate(), request.getCheckOutDate());
         BigDecimal totalAmount = room.getBasePrice().multiply(BigDecimal.valueOf(numberOfNights));
         
-        // Create and save booking
+        // Create booking
         Booking booking = new Booking();
         booking.setUser(guestUser);
         booking.setRoom(room);
@@ -84,7 +91,32 @@ public class BookingService {
         booking.setBookingReference(generateBookingReference());
         booking.setCreatedBy(currentUser);
         
-        Booking savedBooking = bookingRepository.save(booking);
+        // Availability check and save must not interleave with another request for the same room
+        Booking savedBooking;
+        ReentrantLock roomLock = roomLocks.lockFor(room.getId());
+        roomLock.lock();
+        try {
+            if (!isRoomAvailable(room.getId(), request.getCheckInDate(), request.getCheckOutDate())) {
+                throw new IllegalStateException("Room is not available for the selected dates");
+            }
+            
+            // The local check only sees this node; the claim ledger is authoritative across nodes
+            if (!nightClaims.claim(room.getId(), booking.getBookingReference(),
+                    request.getCheckInDate(), request.getCheckOutDate())) {
+                throw new IllegalStateException("Room is not available for the selected dates");
+            }
+            
+            try {
+                savedBooking = bookingRepository.save(booking);
+            } catch (RuntimeException e) {
+                nightClaims.release(booking.getBookingReference());
+                throw e;
+            }
+            availabilityIndex.occupy(savedBooking.getId(), room.getId(),
+                    request.getCheckInDate(), request.getCheckOutDate());
+        } finally {
+            roomLock.unlock();
+        }
         
         // Create a COMPLETED payment for this booking
         Payment payment = new Payment();
@@ -102,7 +134,7 @@ public class BookingService {
     }
     
     public List<BookingResponse> getUserBookings(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
         
         return bookingRepository.findByUser(user).stream()
@@ -112,7 +144,7 @@ public class BookingService {
     
     @Transactional
     public void cancelBooking(String bookingReference, String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
         
         Booking booking = bookingRepository.findByBookingReference(bookingReference)
@@ -130,6 +162,8 @@ public class BookingService {
         
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        availabilityIndex.release(booking.getId());
+        nightClaims.release(booking.getBookingReference());
     }
     
     public List<BookingResponse> getBookingsByStatus(BookingStatus status) {
@@ -151,9 +185,83 @@ public class BookingService {
     }
     
     public List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, Integer guestCount) {
+        if (availabilityIndex.isLoaded()) {
+            return availabilityIndex.findAvailableRooms(checkInDate, checkOutDate, guestCount);
+        }
         return roomRepository.findAvailableRooms(checkInDate, checkOutDate, guestCount);
     }
     
+    /**
+     * The nearest feasible check-in date for each room type within +/- flexDays of the requested
+     * check-in, ranked by distance from it (earlier date first on ties). Scans the in-memory
+     * occupancy once for the whole window instead of querying each candidate date.
+     */
+    public List<AlternativeStayResponse> findAlternativeStays(LocalDate checkInDate, int nights, int flexDays,
+                                                              Integer guestCount) {
+        if (nights < 1) {
+            throw new IllegalArgumentException("Stay must be at least one night");
+        }
+        int window = Math.min(Math.max(flexDays, 0), MAX_FLEX_DAYS);
+        LocalDate earliest = checkInDate.minusDays(window);
+        if (earliest.isBefore(LocalDate.now())) {
+            earliest = LocalDate.now();
+        }
+        LocalDate latest = checkInDate.plusDays(window);
+        if (latest.isBefore(earliest)) {
+            return List.of();
+        }
+
+        Map<String, AlternativeStayResponse> byTypeAndDate = new HashMap<>();
+        if (availabilityIndex.isLoaded()) {
+            for (Map.Entry<Room, BitSet> entry : availabilityIndex
+                    .findFeasibleCheckIns(earliest, latest, nights, guestCount).entrySet()) {
+                BitSet starts = entry.getValue();
+                for (int offset = starts.nextSetBit(0); offset >= 0; offset = starts.nextSetBit(offset + 1)) {
+                    addAlternative(byTypeAndDate, entry.getKey(), earliest.plusDays(offset), checkInDate, nights);
+                }
+            }
+        } else {
+            // Startup only: the index has not loaded yet, so fall back to one query per candidate date
+            for (LocalDate date = earliest; !date.isAfter(latest); date = date.plusDays(1)) {
+                for (Room room : roomRepository.findAvailableRooms(date, date.plusDays(nights), guestCount)) {
+                    addAlternative(byTypeAndDate, room, date, checkInDate, nights);
+                }
+            }
+        }
+
+        List<AlternativeStayResponse> alternatives = new ArrayList<>(byTypeAndDate.values());
+        alternatives.sort(Comparator.comparing((AlternativeStayResponse a) -> Math.abs(a.getDaysFromRequested()))
+                .thenComparing(AlternativeStayResponse::getCheckInDate)
+                .thenComparing(AlternativeStayResponse::getRoomType, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        // Keep only the closest date of each room type
+        Map<String, AlternativeStayResponse> nearest = new LinkedHashMap<>();
+        for (AlternativeStayResponse alternative : alternatives) {
+            nearest.putIfAbsent(alternative.getRoomType(), alternative);
+        }
+        return new ArrayList<>(nearest.values());
+    }
+    
+    private void addAlternative(Map<String, AlternativeStayResponse> byTypeAndDate, Room room, LocalDate date,
+                                LocalDate requestedCheckIn, int nights) {
+        AlternativeStayResponse alternative = byTypeAndDate.computeIfAbsent(room.getRoomType() + "|" + date,
+                key -> new AlternativeStayResponse(room.getRoomType(), date, nights,
+                        (int) ChronoUnit.DAYS.between(requestedCheckIn, date)));
+        alternative.setRoomsAvailable(alternative.getRoomsAvailable() + 1);
+        if (room.getBasePrice() != null && (alternative.getLowestBasePrice() == null
+                || room.getBasePrice().compareTo(alternative.getLowestBasePrice()) < 0)) {
+            alternative.setLowestBasePrice(room.getBasePrice());
+        }
+    }
+    
+    // Served from memory once the index has loaded; falls back to Mongo during startup
+    private boolean isRoomAvailable(String roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (availabilityIndex.isLoaded()) {
+            return availabilityIndex.isAvailable(roomId, checkInDate, checkOutDate);
+        }
+        return bookingRepository.findOverlappingBookings(roomId, checkInDate, checkOutDate).isEmpty();
+    }
+    
     private void validateBookingRequest(BookingRequest request) {
         if (request.getCheckInDate() == null || request.getCheckOutDate() == null) {
             throw new IllegalArgumentException("Check-in and check-out dates are required");
@@ -0,0 +1,111 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs independent dashboard sections concurrently, one virtual thread each.
+ *
+ * All sections share one ShutdownOnFailure scope, so a section that throws cancels the
+ * rest and the whole call fails. A section that only runs past its own deadline is
+ * cancelled on its own and reported by name under "timedOutSections", with
+ * "partial" set to true; the other sections still come back.
+ *
+ * A blocking Mongo call doesn't notice the interrupt, so the scope would still wait for it
+ * to finish. Sections that query Mongo are built with timedSection or countSection, which
+ * hand the section timeout to the query as a server-side maxTimeMS; the server then aborts
+ * the query by the same deadline and the section really ends on time.
+ */
+@Component
+public class DashboardFanOut {
+
+    private static final Object TIMED_OUT = new Object();
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration defaultTimeout;
+
+    public DashboardFanOut(MongoTemplate mongoTemplate,
+                           @Value("${app.dashboard.section-timeout-ms:800}") long defaultTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultTimeout = Duration.ofMillis(defaultTimeoutMs);
+    }
+
+    public record Section(String name, Callable<?> query, Duration timeout) {}
+
+    public Section section(String name, Callable<?> query) {
+        return new Section(name, query, defaultTimeout);
+    }
+
+    public Section section(String name, Callable<?> query, Duration timeout) {
+        return new Section(name, query, timeout);
+    }
+
+    // The query gets the section timeout to pass on as its server-side max time
+    public Section timedSection(String name, Function<Duration, ?> query) {
+        return new Section(name, () -> query.apply(defaultTimeout), defaultTimeout);
+    }
+
+    public Section countSection(String name, Class<?> entityClass, Criteria criteria) {
+        return timedSection(name, maxTime -> count(entityClass, criteria, maxTime));
+    }
+
+    public long count(Class<?> entityClass, Criteria criteria, Duration maxTime) {
+        return mongoTemplate.count(new Query(criteria).maxTime(maxTime), entityClass);
+    }
+
+    public Map<String, Object> run(List<Section> sections) throws InterruptedException, ExecutionException {
+        Map<String, Subtask<Object>> forked = new LinkedHashMap<>();
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            for (Section section : sections) {
+                forked.put(section.name(), scope.fork(() -> withDeadline(section)));
+            }
+            scope.join().throwIfFailed();
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        forked.forEach((name, subtask) -> {
+            Object value = subtask.get();
+            if (value == TIMED_OUT) {
+                timedOut.add(name);
+            } else {
+                results.put(name, value);
+            }
+        });
+        results.put("partial", !timedOut.isEmpty());
+        if (!timedOut.isEmpty()) {
+            results.put("timedOutSections", timedOut);
+        }
+        return results;
+    }
+
+    // Inner scope so only this section is interrupted when its deadline passes
+    private static Object withDeadline(Section section) throws Exception {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            Subtask<?> subtask = scope.fork(section.query());
+            try {
+                scope.joinUntil(Instant.now().plus(section.timeout()));
+            } catch (TimeoutException e) {
+                return TIMED_OUT;
+            }
+            scope.throwIfFailed(cause -> cause instanceof Exception ex ? ex : new ExecutionException(cause));
+            return subtask.get();
+        }
+    }
+}
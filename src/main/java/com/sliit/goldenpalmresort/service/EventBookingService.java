@@ -9,7 +9,6 @@ import com.sliit.goldenpalmresort.model.User;
 import com.sliit.goldenpalmresort.repository.EventBookingRepository;
 import com.sliit.goldenpalmresort.repository.EventSpaceRepository;
 import com.sliit.goldenpalmresort.repository.PaymentRepository;
-import com.sliit.goldenpalmresort.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +20,7 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,25 +34,25 @@ public class EventBookingService {
     private EventSpaceRepository eventSpaceRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
     
     @Autowired
     private PaymentRepository paymentRepository;
     
+    @Autowired
+    private EventSpaceScheduleIndex scheduleIndex;
+    
+    @Autowired
+    private RoomLockStripes spaceLocks;
+    
     public EventBookingResponse createEventBooking(EventBookingRequest request, String username) {
         // Validate request
         validateEventBookingRequest(request);
         
         // Get current user
-        User currentUser = userRepository.findByUsername(username)
+        User currentUser = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        // Check event space availability
-        if (!isEventSpaceAvailable(request.getEventSpaceId(), request.getEventDate(), 
-                                 request.getStartTime(), request.getEndTime())) {
-            throw new RuntimeException("Event space is not available for selected date and time");
-        }
-        
         // Get event space
         EventSpace eventSpace = eventSpaceRepository.findById(request.getEventSpaceId())
                 .orElseThrow(() -> new RuntimeException("Event space not found"));
@@ -81,8 +81,19 @@ public class EventBookingService {
         eventBooking.setContactPhone(request.getContactPhone());
         eventBooking.setContactEmail(request.getContactEmail());
         
-        // Save event booking
-        eventBooking = eventBookingRepository.save(eventBooking);
+        // Check and save under the space's lock so two requests for one slot cannot both pass the check
+        ReentrantLock spaceLock = spaceLocks.lockFor("event-space:" + eventSpace.getId());
+        spaceLock.lock();
+        try {
+            if (!isEventSpaceAvailable(String.valueOf(request.getEventSpaceId()), request.getEventDate(), 
+                                     request.getStartTime(), request.getEndTime())) {
+                throw new RuntimeException("Event space is not available for selected date and time");
+            }
+            eventBooking = eventBookingRepository.save(eventBooking);
+            scheduleIndex.update(eventBooking);
+        } finally {
+            spaceLock.unlock();
+        }
         
         // Create a COMPLETED payment for this event booking
         Payment payment = new Payment();
@@ -100,7 +111,7 @@ public class EventBookingService {
     }
     
     public List<EventBookingResponse> getUserEventBookings(String username) {
-        User currentUser = userRepository.findByUsername(username)
+        User currentUser = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         List<EventBooking> eventBookings = eventBookingRepository.findByUserId(currentUser.getId());
@@ -114,7 +125,7 @@ public class EventBookingService {
                 .orElseThrow(() -> new RuntimeException("Event booking not found"));
         
         // Check if user owns this booking or is admin
-        User currentUser = userRepository.findByUsername(username)
+        User currentUser = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!eventBooking.getUser().getId().equals(currentUser.getId()) && 
@@ -130,7 +141,7 @@ public class EventBookingService {
                 .orElseThrow(() -> new RuntimeException("Event booking not found"));
         
         // Check if user owns this booking or is admin
-        User currentUser = userRepository.findByUsername(username)
+        User currentUser = userDirectory.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!eventBooking.getUser().getId().equals(currentUser.getId()) && 
@@ -145,6 +156,7 @@ public class EventBookingService {
         
         eventBooking.setStatus(EventBooking.EventBookingStatus.CANCELLED);
         eventBooking = eventBookingRepository.save(eventBooking);
+        scheduleIndex.remove(eventBooking.getId());
         
         return EventBookingResponse.from(eventBooking);
     }
@@ -188,8 +200,13 @@ public class EventBookingService {
         }
     }
     
-    private boolean isEventSpaceAvailable(Long eventSpaceId, LocalDate eventDate, 
+    private boolean isEventSpaceAvailable(String eventSpaceId, LocalDate eventDate, 
                                         String startTime, String endTime) {
+        if (scheduleIndex.isLoaded()) {
+            return !scheduleIndex.hasConflict(eventSpaceId, eventDate, startTime, endTime);
+        }
+        
+        // Startup fallback until the schedule index has loaded
         List<EventBooking> conflictingBookings = eventBookingRepository.findConflictingEventBookings(
             eventSpaceId, eventDate, startTime, endTime);
         return conflictingBookings.isEmpty();
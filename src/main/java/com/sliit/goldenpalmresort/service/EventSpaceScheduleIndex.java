@@ -0,0 +1,178 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.EventBooking;
+import com.sliit.goldenpalmresort.repository.EventBookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory schedule of every event space, used for conflict detection.
+ *
+ * Slots are stored per space in a TreeMap keyed by absolute minute
+ * (epochDay * 1440 + minute-of-day), so each day's bookings form a contiguous,
+ * sorted range and an event whose end time is not after its start time simply
+ * runs past midnight into the next day, the same way calculateEventTotalAmount bills it.
+ */
+@Service
+public class EventSpaceScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSpaceScheduleIndex.class);
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final EventBookingRepository eventBookingRepository;
+
+    private volatile Map<String, SpaceSchedule> spaces = new ConcurrentHashMap<>();
+    private final Map<String, String> spaceByBooking = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    public EventSpaceScheduleIndex(EventBookingRepository eventBookingRepository) {
+        this.eventBookingRepository = eventBookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<String, SpaceSchedule> fresh = new ConcurrentHashMap<>();
+        Map<String, String> freshBookings = new HashMap<>();
+
+        int slots = 0;
+        // Yesterday's overnight events can still be running this morning
+        for (EventBooking booking : eventBookingRepository.findActiveSchedule(LocalDate.now().minusDays(1))) {
+            Slot slot = toSlot(booking);
+            if (slot == null) {
+                continue;
+            }
+            fresh.computeIfAbsent(booking.getEventSpaceId(), id -> new SpaceSchedule()).add(slot);
+            freshBookings.put(booking.getId(), booking.getEventSpaceId());
+            slots++;
+        }
+
+        spaces = fresh;
+        spaceByBooking.clear();
+        spaceByBooking.putAll(freshBookings);
+        loaded = true;
+        logger.info("Event space schedule index loaded: {} spaces, {} slots", fresh.size(), slots);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Re-indexes a booking after any create or status/time change; cancelled bookings drop out
+    public void update(EventBooking booking) {
+        if (booking == null || booking.getId() == null) {
+            return;
+        }
+        remove(booking.getId());
+        if (booking.getStatus() == EventBooking.EventBookingStatus.CANCELLED) {
+            return;
+        }
+        Slot slot = toSlot(booking);
+        if (slot == null) {
+            return;
+        }
+        spaces.computeIfAbsent(booking.getEventSpaceId(), id -> new SpaceSchedule()).add(slot);
+        spaceByBooking.put(booking.getId(), booking.getEventSpaceId());
+    }
+
+    public void remove(String bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        String spaceId = spaceByBooking.remove(bookingId);
+        if (spaceId == null) {
+            return;
+        }
+        SpaceSchedule schedule = spaces.get(spaceId);
+        if (schedule != null) {
+            schedule.remove(bookingId);
+        }
+    }
+
+    public boolean hasConflict(String eventSpaceId, LocalDate eventDate, String startTime, String endTime) {
+        SpaceSchedule schedule = spaces.get(eventSpaceId);
+        if (schedule == null) {
+            return false;
+        }
+        long start = absoluteMinute(eventDate, startTime);
+        return schedule.overlaps(start, endMinute(start, eventDate, endTime));
+    }
+
+    static Slot toSlot(EventBooking booking) {
+        if (booking.getEventSpaceId() == null || booking.getEventDate() == null
+                || booking.getStartTime() == null || booking.getEndTime() == null) {
+            return null;
+        }
+        try {
+            long start = absoluteMinute(booking.getEventDate(), booking.getStartTime());
+            long end = endMinute(start, booking.getEventDate(), booking.getEndTime());
+            return new Slot(booking.getId(), start, end);
+        } catch (RuntimeException e) {
+            logger.warn("Skipping event booking {} with unparseable times: {}", booking.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    static long absoluteMinute(LocalDate date, String time) {
+        LocalTime parsed = LocalTime.parse(time);
+        return date.toEpochDay() * MINUTES_PER_DAY + parsed.getHour() * 60 + parsed.getMinute();
+    }
+
+    // An end time at or before the start time means the event runs past midnight
+    static long endMinute(long start, LocalDate date, String endTime) {
+        long end = absoluteMinute(date, endTime);
+        return end <= start ? end + MINUTES_PER_DAY : end;
+    }
+
+    record Slot(String bookingId, long start, long end) {}
+
+    static final class SpaceSchedule {
+
+        private final TreeMap<Long, Map<String, Slot>> byStart = new TreeMap<>();
+        private final Map<String, Slot> byBooking = new HashMap<>();
+
+        synchronized void add(Slot slot) {
+            byStart.computeIfAbsent(slot.start(), k -> new HashMap<>()).put(slot.bookingId(), slot);
+            byBooking.put(slot.bookingId(), slot);
+        }
+
+        synchronized void remove(String bookingId) {
+            Slot slot = byBooking.remove(bookingId);
+            if (slot == null) {
+                return;
+            }
+            Map<String, Slot> atStart = byStart.get(slot.start());
+            if (atStart != null) {
+                atStart.remove(bookingId);
+                if (atStart.isEmpty()) {
+                    byStart.remove(slot.start());
+                }
+            }
+        }
+
+        // No slot lasts a full day or more, so only slots starting in the preceding day can reach [start, end)
+        synchronized boolean overlaps(long start, long end) {
+            NavigableMap<Long, Map<String, Slot>> candidates =
+                    byStart.subMap(start - MINUTES_PER_DAY, false, end, false);
+            for (Map<String, Slot> atStart : candidates.values()) {
+                for (Slot slot : atStart.values()) {
+                    if (slot.end() > start) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
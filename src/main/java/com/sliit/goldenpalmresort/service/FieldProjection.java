@@ -0,0 +1,126 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns a {@code ?fields=a,b,c} request parameter into a Mongo field projection.
+ *
+ * Names are entity property names and are checked against the mapping metadata, so a typo
+ * is a 400 rather than a silently empty column. The id is always returned. Secrets and
+ * binary payloads cannot be selected at all.
+ */
+@Component
+public class FieldProjection {
+
+    // Never selectable: credentials and image bytes
+    private static final Set<String> HIDDEN = Set.of("password", "photoData");
+
+    private final MongoMappingContext mappingContext;
+
+    public FieldProjection(MongoMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+    }
+
+    public record Selection(MongoPersistentEntity<?> entity, List<String> fields) {
+
+        public Query applyTo(Query query) {
+            for (String field : fields) {
+                query.fields().include(field);
+            }
+            return query;
+        }
+
+        // The selected properties of a document loaded with this projection, in request order
+        public Map<String, Object> pick(Object document) {
+            PersistentPropertyAccessor<Object> accessor = entity.getPropertyAccessor(document);
+            Map<String, Object> row = new LinkedHashMap<>();
+            MongoPersistentProperty idProperty = entity.getIdProperty();
+            if (idProperty != null) {
+                row.put(idProperty.getName(), accessor.getProperty(idProperty));
+            }
+            for (String field : fields) {
+                row.put(field, accessor.getProperty(entity.getRequiredPersistentProperty(field)));
+            }
+            return row;
+        }
+    }
+
+    // Null when no fields were requested, meaning full documents
+    public Selection select(Class<?> type, String fields) {
+        Set<String> requested = parse(fields);
+        if (requested.isEmpty()) {
+            return null;
+        }
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(type);
+        for (String field : requested) {
+            if (!selectable(entity, field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return new Selection(entity, new ArrayList<>(requested));
+    }
+
+    /**
+     * Selections for a listing that merges several collections. Each type projects the requested
+     * fields it has; a field that none of the types has is rejected.
+     */
+    public Map<Class<?>, Selection> selectAcross(String fields, List<Class<?>> types) {
+        Set<String> requested = parse(fields);
+        if (requested.isEmpty()) {
+            return Map.of();
+        }
+        Map<Class<?>, Selection> selections = new LinkedHashMap<>();
+        Set<String> matched = new LinkedHashSet<>();
+        for (Class<?> type : types) {
+            MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(type);
+            List<String> own = new ArrayList<>();
+            for (String field : requested) {
+                if (selectable(entity, field)) {
+                    own.add(field);
+                    matched.add(field);
+                }
+            }
+            selections.put(type, new Selection(entity, own));
+        }
+        for (String field : requested) {
+            if (!matched.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return selections;
+    }
+
+    private static Set<String> parse(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                // The id is always returned
+                if (!name.isEmpty() && !name.equals("id") && !name.equals("_id")) {
+                    requested.add(name);
+                }
+            }
+        }
+        return requested;
+    }
+
+    private static boolean selectable(MongoPersistentEntity<?> entity, String field) {
+        if (HIDDEN.contains(field)) {
+            return false;
+        }
+        MongoPersistentProperty property = entity.getPersistentProperty(field);
+        return property != null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Photos as files under {@code app.upload.dir}, keyed by a generated file name.
+ *
+ * Uploads are copied through a fixed-size buffer into a temporary file that is then moved
+ * into place, so a failed upload never leaves a partial photo behind.
+ */
+@Component
+@ConditionalOnProperty(name = "app.photo.storage", havingValue = "filesystem")
+public class FileSystemPhotoStorage implements PhotoStorage {
+
+    private final Path root;
+    private final int chunkSizeBytes;
+
+    public FileSystemPhotoStorage(@Value("${app.upload.dir:uploads}") String uploadDir,
+                                  @Value("${app.photo.chunk-size-bytes:261120}") int chunkSizeBytes) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.chunkSizeBytes = chunkSizeBytes;
+    }
+
+    @Override
+    public String store(InputStream content, String fileName, String contentType) throws IOException {
+        Files.createDirectories(root);
+        String key = UUID.randomUUID() + extension(fileName);
+        Path temp = Files.createTempFile(root, "upload-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] chunk = new byte[chunkSizeBytes];
+                int read;
+                while ((read = content.read(chunk)) != -1) {
+                    out.write(chunk, 0, read);
+                }
+            }
+            Files.move(temp, resolve(key), StandardCopyOption.ATOMIC_MOVE);
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException("Photo content not found: " + key);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Path localFile(String key) throws IOException {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    public Path resolve(String key) throws IOException {
+        Path path = root.resolve(key).normalize();
+        if (!path.getParent().equals(root)) {
+            throw new FileNotFoundException("Invalid photo key: " + key);
+        }
+        return path;
+    }
+
+    private static String extension(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot >= 0 ? fileName.substring(dot) : "";
+        // Keep only simple extensions such as ".jpg"
+        return extension.matches("\\.[A-Za-z0-9]{1,8}") ? extension.toLowerCase() : "";
+    }
+}
@@ -0,0 +1,63 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Photos in a GridFS bucket of the application database.
+ *
+ * The driver splits uploads into chunk documents of {@code app.photo.chunk-size-bytes} while
+ * reading the input, and the download stream fetches one chunk at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "app.photo.storage", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsPhotoStorage implements PhotoStorage {
+
+    private final GridFSBucket bucket;
+    private final int chunkSizeBytes;
+
+    public GridFsPhotoStorage(MongoTemplate mongoTemplate,
+                              @Value("${app.photo.gridfs-bucket:photo_files}") String bucketName,
+                              @Value("${app.photo.chunk-size-bytes:261120}") int chunkSizeBytes) {
+        this.bucket = GridFSBuckets.create(mongoTemplate.getDb(), bucketName);
+        this.chunkSizeBytes = chunkSizeBytes;
+    }
+
+    @Override
+    public String store(InputStream content, String fileName, String contentType) {
+        GridFSUploadOptions options = new GridFSUploadOptions()
+                .chunkSizeBytes(chunkSizeBytes)
+                .metadata(new Document("contentType", contentType));
+        return bucket.uploadFromStream(fileName, content, options).toHexString();
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return bucket.openDownloadStream(new ObjectId(key));
+        } catch (MongoGridFSException | IllegalArgumentException e) {
+            throw new FileNotFoundException("Photo content not found: " + key);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            bucket.delete(new ObjectId(key));
+        } catch (MongoGridFSException e) {
+            // Already gone
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.sliit.goldenpalmresort.service;
 
+import com.sliit.goldenpalmresort.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,12 +21,26 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "tv";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private int jwtExpiration;
 
+    // Built once: the secret is decoded the same way as the old per-call setSigningKey(String)
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void initKey() {
+        signingKey = new SecretKeySpec(Decoders.BASE64.decode(secret), SignatureAlgorithm.HS256.getJcaName());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -34,6 +54,26 @@ public class JwtService {
         return generateToken(new HashMap<>(), username);
     }
 
+    // Carries what the filter needs to authenticate without loading the user
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        return generateToken(claims, user.getUsername());
+    }
+
+    // Null for tokens issued without the principal claims
+    public TokenPrincipal principalFrom(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return null;
+        }
+        return new TokenPrincipal(userId, claims.getSubject(), User.UserRole.valueOf(role), tokenVersion.longValue());
+    }
+
     public String generateToken(Map<String, Object> extraClaims, String username) {
         return Jwts
                 .builder()
@@ -41,7 +81,7 @@ public class JwtService {
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -58,7 +98,12 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    // Verifies signature and expiry in one pass; throws JwtException for a bad or expired token
+    public Claims parseVerified(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        return parseVerified(token);
     }
 }
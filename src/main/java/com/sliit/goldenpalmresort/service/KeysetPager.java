@@ -0,0 +1,202 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination over (createdAt, _id), newest first.
+ *
+ * A page is read with an index range scan that starts right after the last key of the
+ * previous page, so memory per request is bounded by the page size and deep pages cost
+ * the same as the first. Continuation tokens are opaque base64url strings; documents
+ * without createdAt sort after all dated ones.
+ *
+ * Every response is capped at {@link #MAX_PAGE_SIZE} rows ({@link #DEFAULT_PAGE_SIZE} when no
+ * limit is given); clients that need the whole listing follow {@link #NEXT_CURSOR_HEADER}.
+ */
+@Component
+public class KeysetPager {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Response header carrying the token for the next page; absent on the last page
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String NULL_DATE = "-";
+
+    // Descending (createdAt, id) with missing createdAt last, matching the Mongo sort
+    public static final Comparator<Key> KEY_ORDER = Comparator
+            .comparing(Key::createdAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(Key::id, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+
+    public KeysetPager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public record Key(LocalDateTime createdAt, String id) {}
+
+    public record Page<T>(List<T> items, String nextCursor) {}
+
+    // One collection taking part in a merged listing; selection is null for full documents
+    public record Source<T>(Class<T> type, Criteria filter, Function<T, Key> keyOf, FieldProjection.Selection selection) {
+
+        public Source(Class<T> type, Criteria filter, Function<T, Key> keyOf) {
+            this(type, filter, keyOf, null);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        for (String collection : List.of("bookings", "event_bookings", "payments", "users")) {
+            mongoTemplate.indexOps(collection).ensureIndex(new Index()
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("created_keyset"));
+        }
+    }
+
+    // 200 response carrying the next-page token header; the body stays a plain JSON array
+    public static ResponseEntity.BodyBuilder ok(Page<?> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return builder;
+    }
+
+    public static int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    // The constant of a type's status enum named by a status query parameter, or null if it has none by that name
+    public static <E extends Enum<E>> E statusOf(Class<E> statuses, String status) {
+        if (status == null) {
+            return null;
+        }
+        for (E constant : statuses.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(status)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    public <T> Page<T> page(Class<T> type, Criteria filter, String cursor, Integer limit, Function<T, Key> keyOf) {
+        return page(type, filter, cursor, limit, keyOf, null);
+    }
+
+    public <T> Page<T> page(Class<T> type, Criteria filter, String cursor, Integer limit, Function<T, Key> keyOf,
+                            FieldProjection.Selection selection) {
+        int size = pageSize(limit);
+        List<T> rows = fetch(type, filter, decode(cursor), size + 1, selection);
+        if (rows.size() <= size) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new Page<>(items, encode(keyOf.apply(items.get(size - 1))));
+    }
+
+    /**
+     * One page across several collections sharing the (createdAt, _id) key, e.g. room and
+     * event bookings. Each source reads at most size + 1 rows, and the rows are merged in key order.
+     */
+    public Page<Object> pageAcross(String cursor, Integer limit, List<Source<?>> sources) {
+        int size = pageSize(limit);
+        Key after = decode(cursor);
+        List<Object[]> keyed = new ArrayList<>();
+        for (Source<?> source : sources) {
+            collect(source, after, size + 1, keyed);
+        }
+        keyed.sort((a, b) -> KEY_ORDER.compare((Key) a[0], (Key) b[0]));
+
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(size, keyed.size()); i++) {
+            items.add(keyed.get(i)[1]);
+        }
+        String next = keyed.size() > size ? encode((Key) keyed.get(size - 1)[0]) : null;
+        return new Page<>(items, next);
+    }
+
+    private <T> void collect(Source<T> source, Key after, int limit, List<Object[]> keyed) {
+        for (T row : fetch(source.type(), source.filter(), after, limit, source.selection())) {
+            keyed.add(new Object[] { source.keyOf().apply(row), row });
+        }
+    }
+
+    // Up to `limit` documents strictly after `after` (null for the first page)
+    public <T> List<T> fetch(Class<T> type, Criteria filter, Key after, int limit) {
+        return fetch(type, filter, after, limit, null);
+    }
+
+    public <T> List<T> fetch(Class<T> type, Criteria filter, Key after, int limit, FieldProjection.Selection selection) {
+        List<Criteria> clauses = new ArrayList<>();
+        if (filter != null) {
+            clauses.add(filter);
+        }
+        if (after != null) {
+            clauses.add(after(after));
+        }
+        Query query = clauses.isEmpty() ? new Query() : new Query(new Criteria().andOperator(clauses));
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+        query.limit(limit);
+        if (selection != null) {
+            // createdAt is needed for the next-page key even when not requested
+            selection.applyTo(query).fields().include("createdAt");
+        }
+        return mongoTemplate.find(query, type);
+    }
+
+    public static String encode(Key key) {
+        String raw = (key.createdAt() != null ? key.createdAt().toString() : NULL_DATE) + "|" + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Key decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String date = raw.substring(0, separator);
+            return new Key(NULL_DATE.equals(date) ? null : LocalDateTime.parse(date), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Criteria after(Key key) {
+        Object id = ObjectId.isValid(key.id()) ? new ObjectId(key.id()) : key.id();
+        if (key.createdAt() == null) {
+            return new Criteria().andOperator(Criteria.where("createdAt").is(null), Criteria.where("_id").lt(id));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(key.createdAt()),
+                new Criteria().andOperator(Criteria.where("createdAt").is(key.createdAt()), Criteria.where("_id").lt(id)),
+                Criteria.where("createdAt").is(null));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window limits on sign-in attempts per client IP and per username from that IP, checked
+ * before any password work is queued. The username window is keyed on username plus IP so that
+ * guessing from one address cannot lock the account out for everyone else. Counters are per
+ * node, which is enough to stop one client from filling the hashing queue.
+ */
+@Component
+public class LoginThrottle {
+
+    private record Window(long startedAt, AtomicInteger attempts) {}
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final int maxPerUsername;
+    private final int maxPerIp;
+    private final long windowMs;
+
+    public LoginThrottle(@Value("${app.auth.attempts-per-username:10}") int maxPerUsername,
+                         @Value("${app.auth.attempts-per-ip:50}") int maxPerIp,
+                         @Value("${app.auth.attempt-window-seconds:60}") long windowSeconds) {
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+        this.windowMs = windowSeconds * 1000;
+    }
+
+    /**
+     * Counts one attempt. Returns 0 when it may proceed, otherwise the seconds until the
+     * exhausted window resets. Username may be null (e.g. registration).
+     */
+    public long tryAcquire(String username, String ip) {
+        long now = System.currentTimeMillis();
+        long wait = ip != null ? attempt("ip:" + ip, maxPerIp, now) : 0;
+        if (wait == 0 && username != null) {
+            wait = attempt(userKey(username, ip), maxPerUsername, now);
+        }
+        return wait;
+    }
+
+    // A successful sign-in clears that username's attempts from the same client
+    public void succeeded(String username, String ip) {
+        if (username != null) {
+            windows.remove(userKey(username, ip));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> now - window.startedAt() >= windowMs);
+    }
+
+    private static String userKey(String username, String ip) {
+        return "user:" + username.toLowerCase() + "|" + ip;
+    }
+
+    private long attempt(String key, int limit, long now) {
+        Window window = windows.compute(key, (k, current) ->
+                current == null || now - current.startedAt() >= windowMs ? new Window(now, new AtomicInteger()) : current);
+        if (window.attempts().incrementAndGet() <= limit) {
+            return 0;
+        }
+        return Math.max(1, (window.startedAt() + windowMs - now + 999) / 1000);
+    }
+}
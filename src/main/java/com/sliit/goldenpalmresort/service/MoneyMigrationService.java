@@ -0,0 +1,152 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot rewrite of money fields that older versions stored as strings into Decimal128.
+ *
+ * Each collection is streamed with a cursor over just the string-typed documents and
+ * rewritten in unordered bulk batches, so memory stays flat however large it is. The run
+ * is leased through {@link SchemaMigrations}, so only one node of a cluster migrates and
+ * later startups skip it; running it again is harmless because only string values are
+ * matched.
+ */
+@Service
+public class MoneyMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyMigrationService.class);
+
+    static final String MIGRATION_ID = "money-decimal128";
+    private static final int BATCH_SIZE = 500;
+
+    // Collection -> BigDecimal fields, matching the @Document mappings
+    private static final Map<String, List<String>> MONEY_FIELDS = new LinkedHashMap<>();
+    static {
+        MONEY_FIELDS.put("payments", List.of("amount", "refundAmount"));
+        MONEY_FIELDS.put("bookings", List.of("totalAmount"));
+        MONEY_FIELDS.put("event_bookings", List.of("totalAmount"));
+        MONEY_FIELDS.put("rooms", List.of("basePrice"));
+        MONEY_FIELDS.put("event_spaces", List.of("basePrice"));
+        MONEY_FIELDS.put("refund_requests", List.of("refundAmount"));
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final SchemaMigrations migrations;
+
+    public MoneyMigrationService(MongoTemplate mongoTemplate, SchemaMigrations migrations) {
+        this.mongoTemplate = mongoTemplate;
+        this.migrations = migrations;
+    }
+
+    // Runs before the rollups and indexes that read money fields
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (migrations.claim(MIGRATION_ID)) {
+            long rewritten = 0;
+            try {
+                for (Map.Entry<String, List<String>> entry : MONEY_FIELDS.entrySet()) {
+                    rewritten += migrateCollection(entry.getKey(), entry.getValue());
+                }
+            } catch (RuntimeException e) {
+                migrations.release(MIGRATION_ID);
+                throw e;
+            }
+            migrations.complete(MIGRATION_ID, rewritten);
+            logger.info("Money fields migrated to Decimal128: {} documents rewritten", rewritten);
+        } else {
+            logger.info("Money migration completed or in progress on another node, skipping");
+        }
+
+        // Numeric index for amount range queries, only meaningful once amounts are Decimal128
+        mongoTemplate.indexOps("payments").ensureIndex(new Index()
+                .on("amount", Sort.Direction.ASC)
+                .named("payment_amount"));
+    }
+
+    long migrateCollection(String collectionName, List<String> fields) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        List<Bson> stringTyped = new ArrayList<>();
+        for (String field : fields) {
+            stringTyped.add(Filters.type(field, BsonType.STRING));
+        }
+
+        long rewritten = 0;
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        try (MongoCursor<Document> cursor = collection.find(Filters.or(stringTyped))
+                .projection(Projections.include(fields))
+                .batchSize(BATCH_SIZE)
+                .cursor()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                List<Bson> updates = new ArrayList<>();
+                for (String field : fields) {
+                    Object value = document.get(field);
+                    if (value instanceof String text) {
+                        Decimal128 decimal = toDecimal128(text);
+                        if (decimal != null) {
+                            updates.add(Updates.set(field, decimal));
+                        } else {
+                            logger.warn("Skipping unparseable {}.{} on {}: '{}'", collectionName, field, document.get("_id"), text);
+                        }
+                    }
+                }
+                if (updates.isEmpty()) {
+                    continue;
+                }
+                batch.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")), Updates.combine(updates)));
+                if (batch.size() == BATCH_SIZE) {
+                    rewritten += flush(collection, batch);
+                }
+            }
+        }
+        rewritten += flush(collection, batch);
+        if (rewritten > 0) {
+            logger.info("Rewrote {} {} documents with Decimal128 money fields", rewritten, collectionName);
+        }
+        return rewritten;
+    }
+
+    private static long flush(MongoCollection<Document> collection, List<WriteModel<Document>> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long modified = collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        batch.clear();
+        return modified;
+    }
+
+    private static Decimal128 toDecimal128(String text) {
+        try {
+            return new Decimal128(new BigDecimal(text.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.mongodb.ErrorCategory;
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.NightClaim;
+import com.sliit.goldenpalmresort.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cross-node guard against double booking.
+ *
+ * Every night of a stay is written to night_claims as its own document, and a unique
+ * index on (roomId, epochDay) lets Mongo reject the second writer for any night no
+ * matter which app node it came from. Claims are owned by booking reference, which
+ * is known before the booking itself is saved.
+ */
+@Service
+public class NightClaimService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NightClaimService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final BookingRepository bookingRepository;
+
+    public NightClaimService(MongoTemplate mongoTemplate, BookingRepository bookingRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.bookingRepository = bookingRepository;
+    }
+
+    // Index creation is explicit because Spring Boot leaves auto-index-creation off
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        mongoTemplate.indexOps(NightClaim.class).ensureIndex(new Index()
+                .on("roomId", Sort.Direction.ASC)
+                .on("epochDay", Sort.Direction.ASC)
+                .unique()
+                .named("room_night_unique"));
+        mongoTemplate.indexOps(NightClaim.class).ensureIndex(new Index()
+                .on("bookingReference", Sort.Direction.ASC)
+                .named("booking_reference"));
+        backfill();
+    }
+
+    /**
+     * Claims every night in [checkInDate, checkOutDate) for the booking in one ordered bulk insert.
+     * Returns false, with nothing left behind, if any night is already held by another booking.
+     */
+    public boolean claim(String roomId, String bookingReference, LocalDate checkInDate, LocalDate checkOutDate) {
+        return insert(bookingReference, nights(roomId, bookingReference, checkInDate, checkOutDate));
+    }
+
+    /**
+     * Moves a stay to new dates. Only the nights gained are claimed, and only once they are all
+     * held are the nights no longer needed released, so the booking never gives up a night it
+     * keeps. Returns false, leaving the old claims exactly as they were, on conflict.
+     */
+    public boolean move(String roomId, String bookingReference, LocalDate oldCheckIn, LocalDate oldCheckOut,
+                        LocalDate newCheckIn, LocalDate newCheckOut) {
+        List<NightClaim> added = nights(roomId, bookingReference, newCheckIn, newCheckOut);
+        added.removeIf(claim -> within(claim.getEpochDay(), oldCheckIn, oldCheckOut));
+        if (!insert(bookingReference, added)) {
+            return false;
+        }
+        List<Long> dropped = new ArrayList<>();
+        for (NightClaim claim : nights(roomId, bookingReference, oldCheckIn, oldCheckOut)) {
+            if (!within(claim.getEpochDay(), newCheckIn, newCheckOut)) {
+                dropped.add(claim.getEpochDay());
+            }
+        }
+        remove(bookingReference, dropped);
+        return true;
+    }
+
+    public void release(String bookingReference) {
+        if (bookingReference == null) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("bookingReference").is(bookingReference)), NightClaim.class);
+    }
+
+    // Early check-out: hand back the nights from the departure date onwards
+    public void releaseFrom(String bookingReference, LocalDate fromDate) {
+        if (bookingReference == null) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("bookingReference").is(bookingReference)
+                .and("epochDay").gte(fromDate.toEpochDay())), NightClaim.class);
+    }
+
+    private boolean insert(String bookingReference, List<NightClaim> claims) {
+        if (claims.isEmpty()) {
+            return true;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, NightClaim.class)
+                    .insert(claims)
+                    .execute();
+            return true;
+        } catch (BulkOperationException e) {
+            // Ordered mode stops at the first duplicate; undo only the nights this call inserted
+            remove(bookingReference, claims.stream().map(NightClaim::getEpochDay).toList());
+            if (isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        } catch (DuplicateKeyException e) {
+            remove(bookingReference, claims.stream().map(NightClaim::getEpochDay).toList());
+            return false;
+        }
+    }
+
+    private void remove(String bookingReference, List<Long> epochDays) {
+        if (bookingReference == null || epochDays.isEmpty()) {
+            return;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("bookingReference").is(bookingReference)
+                .and("epochDay").in(epochDays)), NightClaim.class);
+    }
+
+    private static boolean within(long epochDay, LocalDate checkInDate, LocalDate checkOutDate) {
+        return checkInDate != null && checkOutDate != null
+                && epochDay >= checkInDate.toEpochDay() && epochDay < checkOutDate.toEpochDay();
+    }
+
+    // Bookings made before the ledger existed get their nights claimed once; duplicates are skipped
+    private void backfill() {
+        List<NightClaim> missing = new ArrayList<>();
+        for (Booking booking : bookingRepository.findActiveStays(LocalDate.now())) {
+            if (booking.getBookingReference() == null || booking.getCheckInDate() == null
+                    || booking.getCheckOutDate() == null) {
+                continue;
+            }
+            LocalDate from = booking.getCheckInDate().isBefore(LocalDate.now()) ? LocalDate.now() : booking.getCheckInDate();
+            missing.addAll(nights(booking.getRoomId(), booking.getBookingReference(), from, booking.getCheckOutDate()));
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        int inserted;
+        try {
+            inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NightClaim.class)
+                    .insert(missing)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            inserted = e.getResult().getInsertedCount();
+        }
+        logger.info("Night claim ledger backfilled {} of {} active nights", inserted, missing.size());
+    }
+
+    private static List<NightClaim> nights(String roomId, String bookingReference, LocalDate checkInDate, LocalDate checkOutDate) {
+        List<NightClaim> claims = new ArrayList<>();
+        if (roomId == null || checkInDate == null || checkOutDate == null) {
+            return claims;
+        }
+        for (LocalDate night = checkInDate; night.isBefore(checkOutDate); night = night.plusDays(1)) {
+            claims.add(new NightClaim(roomId, night, bookingReference));
+        }
+        return claims;
+    }
+
+    private static boolean isDuplicateKey(BulkOperationException e) {
+        return e.getErrors().stream()
+                .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+    }
+}
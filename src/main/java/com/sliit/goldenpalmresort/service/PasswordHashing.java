@@ -0,0 +1,90 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.exception.ServerBusyException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work (login checks, hashing new passwords) on its own bounded pool.
+ *
+ * BCrypt is deliberately slow, so a burst of logins on request threads would starve every
+ * other endpoint. Here at most one job per core runs at a time, with a short queue behind
+ * it; when the queue is full the work is refused with {@link ServerBusyException} at once
+ * instead of piling up. Controllers return the future, so no request thread waits on it.
+ */
+@Service
+public class PasswordHashing {
+
+    private final ThreadPoolExecutor workers;
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashing(@Value("${app.auth.hash-threads:0}") int threads,
+                           @Value("${app.auth.hash-queue:64}") int queueCapacity,
+                           @Value("${app.auth.busy-retry-after-seconds:2}") long retryAfterSeconds) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Throws ServerBusyException when the pool and its queue are full
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, workers);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServerBusyException("Too many sign-in requests, try again shortly", retryAfterSeconds);
+        }
+    }
+
+    // For callers that must have the result on the current thread
+    public <T> T call(Supplier<T> work) {
+        try {
+            return submit(work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", workers.getMaximumPoolSize());
+        stats.put("active", workers.getActiveCount());
+        stats.put("queueDepth", workers.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", workers.getCompletedTaskCount());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+}
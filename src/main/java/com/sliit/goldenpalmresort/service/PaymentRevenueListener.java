@@ -0,0 +1,49 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.Payment;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps revenue_daily in step with every payment write, whichever controller or service made it.
+ *
+ * The stored copy is read just before the write so the old contribution can be taken out and
+ * the new one added. A write that fails after this point leaves the rollup slightly off until
+ * the next {@link RevenueRollupService#rebuild()}.
+ */
+@Component
+public class PaymentRevenueListener extends AbstractMongoEventListener<Payment> {
+
+    private final MongoTemplate mongoTemplate;
+    private final RevenueRollupService revenueRollup;
+
+    public PaymentRevenueListener(MongoTemplate mongoTemplate, RevenueRollupService revenueRollup) {
+        this.mongoTemplate = mongoTemplate;
+        this.revenueRollup = revenueRollup;
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Payment> event) {
+        Payment payment = event.getSource();
+        Payment previous = payment.getId() != null ? mongoTemplate.findById(payment.getId(), Payment.class) : null;
+        revenueRollup.applyChange(previous, payment);
+    }
+
+    // Only single-document deletes carry a plain _id; bulk query deletes are left to the rebuild job
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Payment> event) {
+        Document query = event.getDocument();
+        Object id = query != null ? query.get("_id") : null;
+        if (id == null || id instanceof Document) {
+            return;
+        }
+        Payment previous = mongoTemplate.findById(id, Payment.class);
+        if (previous != null) {
+            revenueRollup.applyChange(previous, null);
+        }
+    }
+}
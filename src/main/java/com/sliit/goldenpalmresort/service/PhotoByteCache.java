@@ -0,0 +1,261 @@
+package com.sliit.goldenpalmresort.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Byte-budgeted LRU cache of photo bodies, held off-heap.
+ *
+ * Each cached body is one {@link MemorySegment} in its own shared {@link Arena}, keyed by
+ * storage key (keys are never reused for different content), or by a caller-chosen key for
+ * bodies held elsewhere such as legacy inline photos. A hit is served straight from
+ * native memory: no storage round trip and no per-request {@code byte[]} the size of the
+ * image. Streams hold a reference to their entry, so an entry evicted while being served
+ * is freed when its last reader closes, never under it.
+ */
+@Component
+public class PhotoByteCache {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final PhotoStorage photoStorage;
+    private final long budgetBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long residentBytes = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PhotoByteCache(PhotoStorage photoStorage,
+                          @Value("${app.photo.cache-bytes:67108864}") long budgetBytes,
+                          @Value("${app.photo.cache-max-entry-bytes:5242880}") long maxEntryBytes) {
+        this.photoStorage = photoStorage;
+        this.budgetBytes = budgetBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, budgetBytes);
+    }
+
+    /**
+     * Opens the body stored under a key, from memory when cached. Bodies of known length up to
+     * the per-entry limit are copied into native memory on a miss; larger ones stream from
+     * storage as before.
+     */
+    public InputStream open(String storageKey, Long length) throws IOException {
+        return open(storageKey, length, () -> photoStorage.open(storageKey));
+    }
+
+    // Same, for bodies that don't live in photo storage; source opens the body on a miss
+    public InputStream open(String cacheKey, Long length, Source source) throws IOException {
+        Entry entry = acquire(cacheKey);
+        if (entry != null) {
+            hits.increment();
+            return new SegmentInputStream(entry);
+        }
+        misses.increment();
+        if (length == null || length <= 0 || length > maxEntryBytes) {
+            return source.open();
+        }
+        return new SegmentInputStream(load(cacheKey, length, source));
+    }
+
+    @FunctionalInterface
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    // Drops a key whose content was deleted
+    public void invalidate(String storageKey) {
+        synchronized (this) {
+            Entry entry = entries.remove(storageKey);
+            if (entry != null) {
+                residentBytes -= entry.segment.byteSize();
+                entry.retire();
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("residentBytes", residentBytes);
+        }
+        stats.put("budgetBytes", budgetBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests > 0 ? (double) hitCount / requests : 0.0);
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            entry.retire();
+        }
+        entries.clear();
+        residentBytes = 0;
+    }
+
+    private synchronized Entry acquire(String storageKey) {
+        Entry entry = entries.get(storageKey);
+        if (entry != null) {
+            entry.readers++;
+        }
+        return entry;
+    }
+
+    private Entry load(String storageKey, long length, Source content) throws IOException {
+        Arena arena = Arena.ofShared();
+        Entry loaded;
+        try (InputStream source = content.open()) {
+            MemorySegment segment = arena.allocate(length);
+            byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_BYTES, length)];
+            long offset = 0;
+            int read;
+            while (offset < length && (read = source.read(buffer, 0, (int) Math.min(buffer.length, length - offset))) > 0) {
+                MemorySegment.copy(buffer, 0, segment, ValueLayout.JAVA_BYTE, offset, read);
+                offset += read;
+            }
+            if (offset != length) {
+                throw new IOException("Stored photo " + storageKey + " is " + offset + " bytes, expected " + length);
+            }
+            loaded = new Entry(arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+
+        synchronized (this) {
+            Entry existing = entries.get(storageKey);
+            if (existing != null) {
+                // Another request loaded it first
+                loaded.retire();
+                existing.readers++;
+                return existing;
+            }
+            evictFor(length);
+            entries.put(storageKey, loaded);
+            residentBytes += length;
+            loaded.readers++;
+            return loaded;
+        }
+    }
+
+    private void evictFor(long length) {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (residentBytes + length > budgetBytes && eldest.hasNext()) {
+            Entry victim = eldest.next();
+            eldest.remove();
+            residentBytes -= victim.segment.byteSize();
+            victim.retire();
+            evictions.increment();
+        }
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.readers--;
+        if (entry.retired && entry.readers == 0) {
+            entry.arena.close();
+        }
+    }
+
+    // Guarded by the cache monitor
+    private static final class Entry {
+
+        final Arena arena;
+        final MemorySegment segment;
+        int readers = 0;
+        boolean retired = false;
+
+        Entry(Arena arena, MemorySegment segment) {
+            this.arena = arena;
+            this.segment = segment;
+        }
+
+        void retire() {
+            retired = true;
+            if (readers == 0) {
+                arena.close();
+            }
+        }
+    }
+
+    private final class SegmentInputStream extends InputStream {
+
+        private final Entry entry;
+        private long position = 0;
+        private boolean closed = false;
+
+        SegmentInputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ensureOpen();
+            if (position >= entry.segment.byteSize()) {
+                return -1;
+            }
+            return entry.segment.get(ValueLayout.JAVA_BYTE, position++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            ensureOpen();
+            long remaining = entry.segment.byteSize() - position;
+            if (remaining <= 0) {
+                return length == 0 ? 0 : -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            MemorySegment.copy(entry.segment, ValueLayout.JAVA_BYTE, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            ensureOpen();
+            long skipped = Math.max(0, Math.min(n, entry.segment.byteSize() - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return (int) Math.min(Integer.MAX_VALUE, entry.segment.byteSize() - position);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(entry);
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+}
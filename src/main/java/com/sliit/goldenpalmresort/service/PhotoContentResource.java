@@ -0,0 +1,60 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A photo body that is opened only when Spring writes it, and again for each byte range.
+ *
+ * Unlike an InputStreamResource it can be read more than once and knows its length, so
+ * Spring MVC answers Range requests (206, including multipart/byteranges) from it, and a
+ * conditional GET that ends in 304 never touches storage.
+ */
+public class PhotoContentResource extends AbstractResource {
+
+    private final PhotoRenditions renditions;
+    private final PhotoRenditions.Content content;
+    private final String fileName;
+    private final long lastModified;
+
+    public PhotoContentResource(PhotoRenditions renditions, PhotoRenditions.Content content,
+                                String fileName, long lastModified) {
+        this.renditions = renditions;
+        this.content = content;
+        this.fileName = fileName;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return renditions.open(content);
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        // Falls back to counting the stream for photos stored without a size
+        return content.length() != null ? content.length() : super.contentLength();
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String getFilename() {
+        return fileName;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Photo content [" + fileName + "]";
+    }
+}
@@ -0,0 +1,135 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-shot move of legacy inline photoData into {@link PhotoStorage}.
+ *
+ * Photos saved before PhotoStorage carry their bytes inside the photo document. A cursor
+ * streams just those documents, a few at a time since each holds a whole image, and each
+ * image is written to storage before the document gets its storageKey and loses photoData
+ * in one update. The update only matches while the document still has no storageKey, so a
+ * concurrent move wins and the duplicate stored copy is deleted. Leased through
+ * {@link SchemaMigrations} like the money migration; a rerun only picks up what is left.
+ */
+@Service
+public class PhotoDataMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoDataMigrationService.class);
+
+    static final String MIGRATION_ID = "photo-data-storage";
+    private static final String PHOTOS = "photos";
+    // Each document carries a full image, so keep cursor batches small
+    private static final int BATCH_SIZE = 8;
+
+    private final MongoTemplate mongoTemplate;
+    private final PhotoStorage photoStorage;
+    private final PhotoDirectory photoDirectory;
+    private final SchemaMigrations migrations;
+
+    public PhotoDataMigrationService(MongoTemplate mongoTemplate, PhotoStorage photoStorage,
+                                     PhotoDirectory photoDirectory, SchemaMigrations migrations) {
+        this.mongoTemplate = mongoTemplate;
+        this.photoStorage = photoStorage;
+        this.photoDirectory = photoDirectory;
+        this.migrations = migrations;
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!migrations.claim(MIGRATION_ID)) {
+            logger.info("Photo data migration completed or in progress on another node, skipping");
+            return;
+        }
+        long moved;
+        try {
+            moved = moveInlinePhotos();
+        } catch (RuntimeException e) {
+            migrations.release(MIGRATION_ID);
+            throw e;
+        }
+        migrations.complete(MIGRATION_ID, moved);
+        logger.info("Inline photo data moved to photo storage: {} photos", moved);
+    }
+
+    long moveInlinePhotos() {
+        MongoCollection<Document> photos = mongoTemplate.getCollection(PHOTOS);
+        Bson inline = Filters.and(Filters.exists("photoData"), Filters.eq("storageKey", null));
+
+        long moved = 0;
+        try (MongoCursor<Document> cursor = photos.find(inline)
+                .projection(Projections.include("photoData", "fileName", "contentType", "contentHash"))
+                .batchSize(BATCH_SIZE)
+                .cursor()) {
+            while (cursor.hasNext()) {
+                if (move(photos, cursor.next())) {
+                    moved++;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private boolean move(MongoCollection<Document> photos, Document photo) {
+        Object id = photo.get("_id");
+        Object data = photo.get("photoData");
+        if (!(data instanceof Binary binary)) {
+            // Null or unreadable leftovers: nothing to move, just drop the field
+            photos.updateOne(Filters.eq("_id", id), Updates.unset("photoData"));
+            return false;
+        }
+        byte[] bytes = binary.getData();
+
+        String key;
+        try {
+            key = photoStorage.store(new ByteArrayInputStream(bytes), photo.getString("fileName"), photo.getString("contentType"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store photo data of photo " + id, e);
+        }
+
+        List<Bson> updates = new ArrayList<>();
+        updates.add(Updates.set("storageKey", key));
+        updates.add(Updates.set("fileSize", (long) bytes.length));
+        if (photo.getString("contentHash") == null) {
+            updates.add(Updates.set("contentHash", PhotoRenditions.sha256(bytes)));
+        }
+        updates.add(Updates.unset("photoData"));
+        long matched = photos.updateOne(Filters.and(Filters.eq("_id", id), Filters.eq("storageKey", null)),
+                Updates.combine(updates)).getMatchedCount();
+        if (matched == 0) {
+            deleteQuietly(key);
+            return false;
+        }
+        photoDirectory.invalidate(id.toString());
+        return true;
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            photoStorage.delete(key);
+        } catch (IOException e) {
+            logger.warn("Could not delete duplicate stored photo {}: {}", key, e.toString());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.Photo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cached photo metadata for the download endpoint, so a hit (or a 304) is answered without
+ * reading the photo document.
+ *
+ * Entries live for {@code app.photo.metadata-cache-ttl-ms} and at most
+ * {@code app.photo.metadata-cache-size} photos are kept. Deletes, new renditions and the
+ * photoData migration invalidate a photo on this node; other nodes pick the change up once
+ * the entry expires. Legacy photos are cached without their inline bytes: their size and
+ * hash are worked out once on load, and the body itself goes through {@link PhotoByteCache}.
+ * Returned photos are shared, so callers must not modify them.
+ */
+@Component
+public class PhotoDirectory {
+
+    private record Entry(Photo photo, long expiresAt) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxEntries;
+    private final long ttlMs;
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PhotoDirectory(MongoTemplate mongoTemplate,
+                          @Value("${app.photo.metadata-cache-size:2000}") int maxEntries,
+                          @Value("${app.photo.metadata-cache-ttl-ms:60000}") long ttlMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    public Photo findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        Entry entry = byId.get(id);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.photo();
+        }
+        misses.increment();
+        Photo photo = mongoTemplate.findById(id, Photo.class);
+        if (photo != null) {
+            stripInlineData(photo);
+            put(photo);
+        }
+        return photo;
+    }
+
+    // Call after deleting a photo or changing where its content lives
+    public void invalidate(String id) {
+        if (id != null) {
+            byId.remove(id);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", byId.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests > 0 ? (double) hitCount / requests : 0.0);
+        return stats;
+    }
+
+    // Keeps the size and hash of legacy inline bytes, not the bytes themselves
+    private static void stripInlineData(Photo photo) {
+        byte[] inline = photo.getPhotoData();
+        if (photo.getStorageKey() == null && inline != null) {
+            photo.setFileSize((long) inline.length);
+            photo.setContentHash(PhotoRenditions.sha256(inline));
+        }
+        photo.setPhotoData(null);
+    }
+
+    private void put(Photo photo) {
+        if (byId.size() >= maxEntries) {
+            makeRoom();
+        }
+        byId.put(photo.getId(), new Entry(photo, System.currentTimeMillis() + ttlMs));
+    }
+
+    // Expired entries first, then arbitrary ones
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        byId.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<Entry> entries = byId.values().iterator();
+        while (byId.size() >= maxEntries && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.sliit.goldenpalmresort.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes photos that are plain local files without copying them through the JVM.
+ *
+ * On Tomcat's NIO connector the file is handed to the connector as a sendfile request, so
+ * the kernel moves it from the page cache to the socket. Elsewhere it falls back to
+ * FileChannel.transferTo into the response stream. Conditional requests and a single byte
+ * range are handled here; anything else (multipart ranges, unsatisfiable ranges) is left to
+ * the regular Spring MVC resource path.
+ */
+@Component
+public class PhotoFileSender {
+
+    // Tomcat's sendfile contract (org.apache.coyote.Constants / org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Sends the file with the given response headers (content type, ETag, Last-Modified,
+     * Cache-Control...). Returns false, having written nothing, when the request needs the
+     * regular path.
+     */
+    public boolean send(HttpServletRequest request, HttpServletResponse response, Path file, HttpHeaders headers)
+            throws IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        boolean partial = rangeHeader != null && rangeApplies(request, headers);
+        if (partial) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (ranges.size() != 1) {
+                return false;
+            }
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (start > end || start >= length) {
+                return false;
+            }
+        }
+
+        for (Map.Entry<String, List<String>> header : headers.headerSet()) {
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+        if (new ServletWebRequest(request, response)
+                .checkNotModified(headers.getETag(), headers.getLastModified())) {
+            return true;
+        }
+
+        long count = end - start + 1;
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+        response.setContentLengthLong(count);
+        if (head || count == 0) {
+            return true;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // The connector writes the file after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        return true;
+    }
+
+    // If-Range: the range only applies while the representation still has that ETag
+    private static boolean rangeApplies(HttpServletRequest request, HttpHeaders headers) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        String eTag = headers.getETag();
+        return eTag != null && !eTag.startsWith("W/") && eTag.equals(ifRange.trim());
+    }
+}
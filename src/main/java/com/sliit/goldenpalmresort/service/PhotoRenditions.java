@@ -0,0 +1,336 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.Photo;
+import com.sliit.goldenpalmresort.model.PhotoRendition;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thumbnail, medium and large renditions of uploaded photos.
+ *
+ * Uploads queue every size on a small bounded worker pool. A download for a size that is
+ * not there yet (older photos, or a job dropped because the queue was full) generates it
+ * on the same pool and waits for it; concurrent requests for the same rendition share one
+ * job. If generation fails or times out the original is served instead. Originals are
+ * decoded with source subsampling, so a 10 MB upload is never expanded to full resolution
+ * just to make a 320px thumbnail.
+ */
+@Service
+public class PhotoRenditions {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoRenditions.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    public enum Size {
+        THUMBNAIL(320),
+        MEDIUM(960),
+        LARGE(1920);
+
+        final int longEdge;
+
+        Size(int longEdge) {
+            this.longEdge = longEdge;
+        }
+
+        public String key() {
+            return name().toLowerCase();
+        }
+
+        // Null for the original ("original", blank or absent)
+        public static Size parse(String value) {
+            if (value == null || value.isBlank() || value.equalsIgnoreCase("original")) {
+                return null;
+            }
+            return Size.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    // Where one servable body lives (storage key, or the id of a legacy photo holding it inline) and how to describe it
+    public record Content(String storageKey, String inlinePhotoId, String contentType, Long length, String contentHash) {}
+
+    // Byte cache key of a legacy inline body; storage keys never take this form
+    private static final String INLINE_CACHE_PREFIX = "inline:";
+
+    private final PhotoStorage photoStorage;
+    private final PhotoByteCache photoByteCache;
+    private final MongoTemplate mongoTemplate;
+    private final PhotoDirectory photoDirectory;
+    private final ThreadPoolExecutor workers;
+    private final long lazyWaitMs;
+    private final Map<String, CompletableFuture<PhotoRendition>> inFlight = new ConcurrentHashMap<>();
+
+    public PhotoRenditions(PhotoStorage photoStorage,
+                           PhotoByteCache photoByteCache,
+                           MongoTemplate mongoTemplate,
+                           PhotoDirectory photoDirectory,
+                           @Value("${app.photo.rendition-threads:2}") int threads,
+                           @Value("${app.photo.rendition-queue:64}") int queueCapacity,
+                           @Value("${app.photo.rendition-wait-ms:10000}") long lazyWaitMs) {
+        this.photoStorage = photoStorage;
+        this.photoByteCache = photoByteCache;
+        this.mongoTemplate = mongoTemplate;
+        this.photoDirectory = photoDirectory;
+        this.lazyWaitMs = lazyWaitMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "photo-rendition-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Queues every missing size after an upload; anything dropped here is made on first request
+    public void generateAll(Photo photo) {
+        for (Size size : Size.values()) {
+            if (!photo.getRenditions().containsKey(size.key())) {
+                try {
+                    ensure(photo, size);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Rendition queue full, {} of photo {} deferred to first request", size.key(), photo.getId());
+                }
+            }
+        }
+    }
+
+    // Resolves the body for a size without reading it; a missing rendition is generated first
+    public Content resolve(Photo photo, Size size) {
+        if (size == null) {
+            return original(photo);
+        }
+        PhotoRendition rendition = photo.getRenditions().get(size.key());
+        if (rendition == null) {
+            try {
+                rendition = ensure(photo, size).get(lazyWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return original(photo);
+            } catch (Exception e) {
+                logger.warn("Serving original of photo {}: {} rendition unavailable ({})", photo.getId(), size.key(), e.toString());
+                return original(photo);
+            }
+        }
+        return new Content(rendition.getStorageKey(), null, rendition.getContentType(),
+                rendition.getFileSize(), rendition.getContentHash());
+    }
+
+    public Content original(Photo photo) {
+        if (photo.getStorageKey() == null) {
+            // Inline bytes of photos saved before PhotoStorage; cached metadata keeps only their size and hash
+            byte[] inline = photo.getPhotoData();
+            if (inline != null) {
+                return new Content(null, photo.getId(), photo.getContentType(), (long) inline.length, sha256(inline));
+            }
+            if (photo.getContentHash() != null) {
+                return new Content(null, photo.getId(), photo.getContentType(), photo.getFileSize(), photo.getContentHash());
+            }
+        }
+        return new Content(photo.getStorageKey(), null, photo.getContentType(), photo.getFileSize(), photo.getContentHash());
+    }
+
+    // Served bodies go through the off-heap cache, legacy inline ones included
+    public InputStream open(Content content) throws IOException {
+        if (content.storageKey() != null) {
+            return photoByteCache.open(content.storageKey(), content.length());
+        }
+        if (content.inlinePhotoId() != null) {
+            return photoByteCache.open(INLINE_CACHE_PREFIX + content.inlinePhotoId(), content.length(),
+                    () -> openInline(content.inlinePhotoId()));
+        }
+        return openDirect(content);
+    }
+
+    // Drops a legacy photo's cached inline body
+    public void invalidateInline(String photoId) {
+        photoByteCache.invalidate(INLINE_CACHE_PREFIX + photoId);
+    }
+
+    // Bypasses the cache, for one-off reads such as rendering
+    private InputStream openDirect(Content content) throws IOException {
+        if (content.inlinePhotoId() != null) {
+            return openInline(content.inlinePhotoId());
+        }
+        if (content.storageKey() == null) {
+            throw new FileNotFoundException("Photo has no content");
+        }
+        return photoStorage.open(content.storageKey());
+    }
+
+    // Reads the inline bytes of a legacy photo, or its stored copy if it was migrated meanwhile
+    private InputStream openInline(String photoId) throws IOException {
+        Query query = new Query(Criteria.where("_id").is(photoId));
+        query.fields().include("photoData", "storageKey");
+        Photo stored = mongoTemplate.findOne(query, Photo.class);
+        if (stored != null && stored.getPhotoData() != null) {
+            return new ByteArrayInputStream(stored.getPhotoData());
+        }
+        if (stored != null && stored.getStorageKey() != null) {
+            return photoStorage.open(stored.getStorageKey());
+        }
+        throw new FileNotFoundException("Photo " + photoId + " has no content");
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Storage keys of the renditions that are separate from the original
+    public Set<String> renditionKeys(Photo photo) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (PhotoRendition rendition : photo.getRenditions().values()) {
+            if (rendition.getStorageKey() != null && !rendition.getStorageKey().equals(photo.getStorageKey())) {
+                keys.add(rendition.getStorageKey());
+            }
+        }
+        return keys;
+    }
+
+    private CompletableFuture<PhotoRendition> ensure(Photo photo, Size size) {
+        String jobKey = photo.getId() + "|" + size.key();
+        CompletableFuture<PhotoRendition> job = inFlight.computeIfAbsent(jobKey, key ->
+                CompletableFuture.supplyAsync(() -> generate(photo, size), workers));
+        job.whenComplete((rendition, failure) -> inFlight.remove(jobKey, job));
+        return job;
+    }
+
+    private PhotoRendition generate(Photo photo, Size size) {
+        try {
+            PhotoRendition rendition;
+            try (InputStream original = openDirect(original(photo))) {
+                rendition = render(photo, original, size);
+            }
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(photo.getId())),
+                    new Update().set("renditions." + size.key(), rendition), Photo.class);
+            // Cached metadata would otherwise keep asking for this rendition
+            photoDirectory.invalidate(photo.getId());
+            return rendition;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not render " + size.key() + " of photo " + photo.getId(), e);
+        }
+    }
+
+    private PhotoRendition render(Photo photo, InputStream original, Size size) throws IOException {
+        BufferedImage decoded;
+        int originalLongEdge;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + photo.getContentType());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                originalLongEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                if (originalLongEdge <= size.longEdge && photo.getStorageKey() != null) {
+                    // Already small enough: the original doubles as this rendition
+                    return new PhotoRendition(photo.getStorageKey(), photo.getContentType(),
+                            reader.getWidth(0), reader.getHeight(0), photo.getFileSize(), photo.getContentHash());
+                }
+                // Decode at no more than twice the target size, then resample smoothly
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, originalLongEdge / (size.longEdge * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        BufferedImage scaled = scale(decoded, size.longEdge);
+        boolean alpha = scaled.getColorModel().hasAlpha();
+        byte[] encoded = alpha ? encodePng(scaled) : encodeJpeg(scaled);
+        String contentType = alpha ? "image/png" : "image/jpeg";
+        String fileName = size.key() + "-" + photo.getFileName();
+        String key = photoStorage.store(new ByteArrayInputStream(encoded), fileName, contentType);
+        return new PhotoRendition(key, contentType, scaled.getWidth(), scaled.getHeight(), (long) encoded.length, sha256(encoded));
+    }
+
+    private static BufferedImage scale(BufferedImage source, int longEdge) {
+        double ratio = (double) longEdge / Math.max(source.getWidth(), source.getHeight());
+        boolean alpha = source.getColorModel().hasAlpha();
+        int width = ratio < 1 ? Math.max(1, (int) Math.round(source.getWidth() * ratio)) : source.getWidth();
+        int height = ratio < 1 ? Math.max(1, (int) Math.round(source.getHeight() * ratio)) : source.getHeight();
+
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -2,6 +2,7 @@ package com.sliit.goldenpalmresort.service;
 
 import com.sliit.goldenpalmresort.dto.PhotoResponse;
 import com.sliit.goldenpalmresort.model.Photo;
+import com.sliit.goldenpalmresort.model.PhotoRendition;
 import com.sliit.goldenpalmresort.model.Room;
 import com.sliit.goldenpalmresort.model.EventSpace;
 import com.sliit.goldenpalmresort.repository.PhotoRepository;
@@ -9,17 +10,28 @@ import com.sliit.goldenpalmresort.repository.RoomRepository;
 import com.sliit.goldenpalmresort.repository.EventSpaceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,8 +47,23 @@ public class PhotoService {
     @Autowired
     private EventSpaceRepository eventSpaceRepository;
     
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private FieldProjection fieldProjection;
+    
+    @Autowired
+    private PhotoStorage photoStorage;
+    
+    @Autowired
+    private PhotoRenditions renditions;
+    
+    @Autowired
+    private PhotoByteCache photoByteCache;
+    
+    @Autowired
+    private PhotoDirectory photoDirectory;
     
     @Value("${app.max.photos.per.item:5}")
     private int maxPhotosPerItem;
@@ -55,6 +82,19 @@ public class PhotoService {
                 .collect(Collectors.toList());
     }
     
+    // Active photos of a room or event space with only the requested metadata fields read
+    public List<Map<String, Object>> getPhotoFields(String ownerField, String ownerId, String fields) {
+        FieldProjection.Selection selection = fieldProjection.select(Photo.class, fields);
+        if (selection == null) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+        Query query = new Query(Criteria.where(ownerField).is(ownerId).and("isActive").is(true))
+                .with(Sort.by("displayOrder"));
+        return mongoTemplate.find(selection.applyTo(query), Photo.class).stream()
+                .map(selection::pick)
+                .collect(Collectors.toList());
+    }
+    
     public PhotoResponse uploadRoomPhoto(Long roomId, MultipartFile file, String uploadedBy) throws IOException {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
@@ -98,16 +138,6 @@ public class PhotoService {
         String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
         String fileName = UUID.randomUUID().toString() + fileExtension;
         
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-        
-        // Save file
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
         // Get next display order
         Integer nextDisplayOrder = 1;
         if (room != null) {
@@ -128,7 +158,7 @@ public class PhotoService {
         photo.setOriginalFileName(originalFileName);
         photo.setContentType(contentType);
         photo.setFileSize(file.getSize());
-        photo.setFilePath(filePath.toString());
+        store(file, photo); // Stream the upload into photo storage
         photo.setDisplayOrder(nextDisplayOrder);
         photo.setRoom(room);
         photo.setEventSpace(eventSpace);
@@ -137,6 +167,9 @@ public class PhotoService {
         photo.setIsActive(true);
         
         Photo savedPhoto = photoRepository.save(photo);
+        savedPhoto.setFilePath("/api/photos/" + savedPhoto.getId() + "/download");
+        savedPhoto = photoRepository.save(savedPhoto);
+        renditions.generateAll(savedPhoto);
         return convertToPhotoResponse(savedPhoto);
     }
     
@@ -144,10 +177,18 @@ public class PhotoService {
         Photo photo = photoRepository.findById(photoId)
                 .orElseThrow(() -> new RuntimeException("Photo not found"));
         
-        // Delete file from filesystem
+        // Delete the stored content; older filesystem uploads only have a file path
         try {
-            Path filePath = Paths.get(photo.getFilePath());
-            Files.deleteIfExists(filePath);
+            for (String key : renditions.renditionKeys(photo)) {
+                photoByteCache.invalidate(key);
+                photoStorage.delete(key);
+            }
+            if (photo.getStorageKey() != null) {
+                photoByteCache.invalidate(photo.getStorageKey());
+                photoStorage.delete(photo.getStorageKey());
+            } else if (photo.getFilePath() != null && !photo.getFilePath().startsWith("/api/")) {
+                Files.deleteIfExists(Paths.get(photo.getFilePath()));
+            }
         } catch (IOException e) {
             // Log error but don't throw exception
             System.err.println("Error deleting file: " + e.getMessage());
@@ -155,6 +196,8 @@ public class PhotoService {
         
         // Delete from database
         photoRepository.delete(photo);
+        photoDirectory.invalidate(photo.getId());
+        renditions.invalidateInline(photo.getId());
     }
     
     public void reorderPhotos(List<Long> photoIds) {
@@ -176,10 +219,79 @@ public class PhotoService {
         response.setDisplayOrder(photo.getDisplayOrder());
         response.setUploadedBy(photo.getUploadedBy());
         response.setUploadedAt(photo.getUploadedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        response.setDownloadUrl("/api/photos/" + photo.getId() + "/download");
+        response.setDownloadUrl(downloadUrl(photo));
+        Map<String, String> renditionUrls = new LinkedHashMap<>();
+        for (PhotoRenditions.Size size : PhotoRenditions.Size.values()) {
+            if (contentHash(photo, size) != null) {
+                renditionUrls.put(size.key(), downloadUrl(photo, size));
+            }
+        }
+        response.setRenditionUrls(renditionUrls);
         return response;
     }
     
+    // Versioned by content hash, so clients may cache it forever; a new upload is a new URL
+    public static String downloadUrl(Photo photo) {
+        return downloadUrl(photo, null);
+    }
+    
+    // Sized URLs carry the rendition's own hash, so only that rendition is ever cached under them
+    public static String downloadUrl(Photo photo, PhotoRenditions.Size size) {
+        String url = "/api/photos/" + photo.getId() + "/download";
+        String hash = contentHash(photo, size);
+        if (size != null) {
+            url += "?size=" + size.key();
+            return hash != null ? url + "&v=" + hash : url;
+        }
+        return hash != null ? url + "?v=" + hash : url;
+    }
+    
+    // Hash of the original (size null) or of a generated rendition; null when not known yet
+    public static String contentHash(Photo photo, PhotoRenditions.Size size) {
+        if (size == null) {
+            return photo.getContentHash();
+        }
+        PhotoRendition rendition = photo.getRenditions() != null ? photo.getRenditions().get(size.key()) : null;
+        return rendition != null ? rendition.getContentHash() : null;
+    }
+    
+    // Streams the upload into storage, hashing it on the way
+    private void store(MultipartFile file, Photo photo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+            photo.setStorageKey(photoStorage.store(content, photo.getFileName(), file.getContentType()));
+        }
+        photo.setContentHash(HexFormat.of().formatHex(digest.digest()));
+    }
+    
+    // Describes the original or one of its renditions (size null for the original) without reading it
+    public PhotoRenditions.Content resolveContent(Photo photo, PhotoRenditions.Size size) {
+        return renditions.resolve(photo, size);
+    }
+    
+    // Re-openable body, so Spring can serve byte ranges and skip reading it on 304
+    public PhotoContentResource contentResource(Photo photo, PhotoRenditions.Content content) {
+        return new PhotoContentResource(renditions, content, photo.getFileName(), lastModified(photo));
+    }
+    
+    // Local file behind the content when storage is the filesystem, for zero-copy serving
+    public Path localFile(PhotoRenditions.Content content) throws IOException {
+        return content.storageKey() != null ? photoStorage.localFile(content.storageKey()) : null;
+    }
+    
+    // Epoch millis of the upload, or -1 when unknown
+    public static long lastModified(Photo photo) {
+        if (photo.getUploadedAt() == null) {
+            return -1;
+        }
+        return photo.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
     // New methods for database storage
     public Photo uploadRoomPhotoToDatabase(Long roomId, MultipartFile file, String uploadedBy) throws IOException {
         Room room = roomRepository.findById(roomId)
@@ -203,7 +315,7 @@ public class PhotoService {
         photo.setContentType(file.getContentType());
         photo.setFileSize(file.getSize());
         photo.setFilePath("temp"); // Will be updated after save with actual ID
-        photo.setPhotoData(file.getBytes()); // Store in database
+        store(file, photo);
         photo.setDisplayOrder((int) photoCount + 1);
         photo.setRoom(room);
         photo.setIsActive(true);
@@ -214,7 +326,9 @@ public class PhotoService {
         
         // Update file path with actual ID
         photo.setFilePath("/api/photos/" + photo.getId() + "/download");
-        return photoRepository.save(photo);
+        photo = photoRepository.save(photo);
+        renditions.generateAll(photo);
+        return photo;
     }
     
     public Photo uploadEventSpacePhotoToDatabase(Long eventSpaceId, MultipartFile file, String uploadedBy) throws IOException {
@@ -239,7 +353,7 @@ public class PhotoService {
         photo.setContentType(file.getContentType());
         photo.setFileSize(file.getSize());
         photo.setFilePath("temp"); // Will be updated after save with actual ID
-        photo.setPhotoData(file.getBytes()); // Store in database
+        store(file, photo);
         photo.setDisplayOrder((int) photoCount + 1);
         photo.setEventSpace(eventSpace);
         photo.setIsActive(true);
@@ -250,10 +364,17 @@ public class PhotoService {
         
         // Update file path with actual ID
         photo.setFilePath("/api/photos/" + photo.getId() + "/download");
-        return photoRepository.save(photo);
+        photo = photoRepository.save(photo);
+        renditions.generateAll(photo);
+        return photo;
     }
     
     public Photo getPhotoById(Long photoId) {
         return photoRepository.findById(photoId).orElse(null);
     }
+    
+    // Cached metadata for serving a download; shared, so not to be modified
+    public Photo getPhotoForDownload(Long photoId) {
+        return photoDirectory.findById(String.valueOf(photoId));
+    }
 }
\ No newline at end of file
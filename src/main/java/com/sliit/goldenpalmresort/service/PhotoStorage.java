@@ -0,0 +1,29 @@
+package com.sliit.goldenpalmresort.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where photo bytes live. Photo documents only keep the returned storage key, so listing
+ * and loading photo metadata never touches image data.
+ *
+ * Implementations stream in both directions: store() consumes the input in fixed-size
+ * chunks and open() returns a stream that is read chunk by chunk, so neither side holds
+ * a whole image in memory. Pick one with {@code app.photo.storage} (gridfs or filesystem).
+ */
+public interface PhotoStorage {
+
+    // Streams the content into storage and returns the key to read it back with
+    String store(InputStream content, String fileName, String contentType) throws IOException;
+
+    // Caller closes the stream; throws FileNotFoundException for an unknown key
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    // The file holding the content when it is a plain local file (served zero-copy), otherwise null
+    default Path localFile(String key) throws IOException {
+        return null;
+    }
+}
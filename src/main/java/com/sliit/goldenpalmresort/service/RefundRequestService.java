@@ -28,14 +28,26 @@ public class RefundRequestService {
     private EventBookingRepository eventBookingRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserDirectory userDirectory;
     
     @Autowired
     private PaymentRepository paymentRepository;
     
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private EventSpaceScheduleIndex scheduleIndex;
+    
+    @Autowired
+    private NightClaimService nightClaims;
+    
+    @Autowired
+    private RelationHydrator relationHydrator;
+    
     @Transactional
     public RefundRequestResponse createRefundRequest(RefundRequestDTO dto, String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDirectory.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         RefundRequest refundRequest = new RefundRequest();
@@ -66,18 +78,20 @@ public class RefundRequestService {
     
     public List<RefundRequestResponse> getAllRefundRequests() {
         List<RefundRequest> requests = refundRequestRepository.findAllByOrderByCreatedAtDesc();
+        RelationHydrator.Relations relations = relationHydrator.hydrate(requests);
         List<RefundRequestResponse> responses = new ArrayList<>();
         for (RefundRequest request : requests) {
-            responses.add(mapToResponse(request));
+            responses.add(mapToResponse(request, relations));
         }
         return responses;
     }
     
     public List<RefundRequestResponse> getPendingRefundRequests() {
         List<RefundRequest> requests = refundRequestRepository.findByStatusOrderByCreatedAtDesc(RefundStatus.PENDING);
+        RelationHydrator.Relations relations = relationHydrator.hydrate(requests);
         List<RefundRequestResponse> responses = new ArrayList<>();
         for (RefundRequest request : requests) {
-            responses.add(mapToResponse(request));
+            responses.add(mapToResponse(request, relations));
         }
         return responses;
     }
@@ -107,6 +121,8 @@ public class RefundRequestService {
             Booking booking = request.getBooking();
             booking.setStatus(BookingStatus.CANCELLED);
             bookingRepository.save(booking);
+            availabilityIndex.release(booking.getId());
+            nightClaims.release(booking.getBookingReference());
             
             // Update payment status to REFUNDED
             Payment payment = paymentRepository.findByBooking(booking).orElse(null);
@@ -121,6 +137,7 @@ public class RefundRequestService {
             EventBooking eventBooking = request.getEventBooking();
             eventBooking.setStatus(EventBooking.EventBookingStatus.CANCELLED);
             eventBookingRepository.save(eventBooking);
+            scheduleIndex.remove(eventBooking.getId());
             
             // Update payment status to REFUNDED
             Payment payment = paymentRepository.findByEventBooking(eventBooking).orElse(null);
@@ -156,11 +173,19 @@ public class RefundRequestService {
     }
     
     private RefundRequestResponse mapToResponse(RefundRequest request) {
+        return mapToResponse(request, relationHydrator.hydrate(List.of(request)));
+    }
+    
+    // Users, bookings, rooms and event spaces come from the identity map built for the whole list
+    private RefundRequestResponse mapToResponse(RefundRequest request, RelationHydrator.Relations relations) {
         RefundRequestResponse response = new RefundRequestResponse();
         response.setId(request.getId());
         response.setBookingReference(request.getBookingReference());
-        response.setUserName(request.getUser().getFirstName() + " " + request.getUser().getLastName());
-        response.setUserEmail(request.getUser().getEmail());
+        User user = relations.user(request.getUserId());
+        if (user != null) {
+            response.setUserName(user.getFirstName() + " " + user.getLastName());
+            response.setUserEmail(user.getEmail());
+        }
         response.setRefundAmount(request.getRefundAmount());
         response.setBankAccountNumber(request.getBankAccountNumber());
         response.setBankName(request.getBankName());
@@ -174,17 +199,23 @@ public class RefundRequestService {
         response.setCreatedAt(request.getCreatedAt());
         
         // Set booking details
-        if (request.getBooking() != null) {
+        Booking booking = relations.booking(request.getBookingId());
+        EventBooking eventBooking = relations.eventBooking(request.getEventBookingId());
+        if (booking != null) {
             response.setBookingType("ROOM");
-            Booking booking = request.getBooking();
-            response.setRoomNumber(booking.getRoom().getRoomNumber());
-            response.setRoomType(booking.getRoom().getRoomType().toString());
+            Room room = relations.room(booking.getRoomId());
+            if (room != null) {
+                response.setRoomNumber(room.getRoomNumber());
+                response.setRoomType(room.getRoomType().toString());
+            }
             response.setCheckInDate(booking.getCheckInDate().toString());
             response.setCheckOutDate(booking.getCheckOutDate().toString());
-        } else if (request.getEventBooking() != null) {
+        } else if (eventBooking != null) {
             response.setBookingType("EVENT");
-            EventBooking eventBooking = request.getEventBooking();
-            response.setEventSpaceName(eventBooking.getEventSpace().getName());
+            EventSpace eventSpace = relations.eventSpace(eventBooking.getEventSpaceId());
+            if (eventSpace != null) {
+                response.setEventSpaceName(eventSpace.getName());
+            }
             response.setEventDate(eventBooking.getEventDate().toString());
             response.setEventType(eventBooking.getEventType());
         }
@@ -0,0 +1,138 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.EventBooking;
+import com.sliit.goldenpalmresort.model.EventSpace;
+import com.sliit.goldenpalmresort.model.RefundRequest;
+import com.sliit.goldenpalmresort.model.Room;
+import com.sliit.goldenpalmresort.model.User;
+import com.sliit.goldenpalmresort.repository.BookingRepository;
+import com.sliit.goldenpalmresort.repository.EventBookingRepository;
+import com.sliit.goldenpalmresort.repository.EventSpaceRepository;
+import com.sliit.goldenpalmresort.repository.RoomRepository;
+import com.sliit.goldenpalmresort.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves the userId / roomId / eventSpaceId references of a list of documents in bulk.
+ *
+ * {@link #hydrate(Collection...)} gathers every referenced id from the rows and loads each
+ * type with a single findAllById ($in) query, so rendering N rows costs one query per
+ * referenced type instead of one or two per row. The returned {@link Relations} is the
+ * identity map for one request: build it once per listing and look references up from it.
+ */
+@Component
+public class RelationHydrator {
+
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final EventSpaceRepository eventSpaceRepository;
+    private final BookingRepository bookingRepository;
+    private final EventBookingRepository eventBookingRepository;
+
+    public RelationHydrator(UserRepository userRepository,
+                            RoomRepository roomRepository,
+                            EventSpaceRepository eventSpaceRepository,
+                            BookingRepository bookingRepository,
+                            EventBookingRepository eventBookingRepository) {
+        this.userRepository = userRepository;
+        this.roomRepository = roomRepository;
+        this.eventSpaceRepository = eventSpaceRepository;
+        this.bookingRepository = bookingRepository;
+        this.eventBookingRepository = eventBookingRepository;
+    }
+
+    // Several lists (e.g. room and event bookings) share one set of queries
+    public Relations hydrate(Collection<?>... lists) {
+        List<Object> rows = new ArrayList<>();
+        for (Collection<?> list : lists) {
+            rows.addAll(list);
+        }
+        return new Relations().include(rows);
+    }
+
+    public final class Relations {
+
+        private final Map<String, User> users = new HashMap<>();
+        private final Map<String, Room> rooms = new HashMap<>();
+        private final Map<String, EventSpace> eventSpaces = new HashMap<>();
+        private final Map<String, Booking> bookings = new HashMap<>();
+        private final Map<String, EventBooking> eventBookings = new HashMap<>();
+
+        private Relations() {}
+
+        // Loads the references of more rows; ids already in the map are not fetched again
+        public Relations include(Collection<?> rows) {
+            Set<String> userIds = new HashSet<>();
+            Set<String> roomIds = new HashSet<>();
+            Set<String> eventSpaceIds = new HashSet<>();
+            Set<String> bookingIds = new HashSet<>();
+            Set<String> eventBookingIds = new HashSet<>();
+
+            for (Object row : rows) {
+                if (row instanceof RefundRequest request) {
+                    add(userIds, users, request.getUserId());
+                    add(bookingIds, bookings, request.getBookingId());
+                    add(eventBookingIds, eventBookings, request.getEventBookingId());
+                }
+            }
+
+            // Refund requests point at bookings, whose own references are gathered below
+            List<Object> all = new ArrayList<>(rows);
+            all.addAll(load(bookingIds, bookings, bookingRepository::findAllById, Booking::getId));
+            all.addAll(load(eventBookingIds, eventBookings, eventBookingRepository::findAllById, EventBooking::getId));
+
+            for (Object row : all) {
+                if (row instanceof Booking booking) {
+                    add(userIds, users, booking.getUserId());
+                    add(roomIds, rooms, booking.getRoomId());
+                } else if (row instanceof EventBooking eventBooking) {
+                    add(userIds, users, eventBooking.getUserId());
+                    add(eventSpaceIds, eventSpaces, eventBooking.getEventSpaceId());
+                }
+            }
+
+            load(userIds, users, userRepository::findAllById, User::getId);
+            load(roomIds, rooms, roomRepository::findAllById, Room::getId);
+            load(eventSpaceIds, eventSpaces, eventSpaceRepository::findAllById, EventSpace::getId);
+            return this;
+        }
+
+        public User user(String id) { return id != null ? users.get(id) : null; }
+
+        public Room room(String id) { return id != null ? rooms.get(id) : null; }
+
+        public EventSpace eventSpace(String id) { return id != null ? eventSpaces.get(id) : null; }
+
+        public Booking booking(String id) { return id != null ? bookings.get(id) : null; }
+
+        public EventBooking eventBooking(String id) { return id != null ? eventBookings.get(id) : null; }
+
+        private static void add(Set<String> ids, Map<String, ?> known, String id) {
+            if (id != null && !known.containsKey(id)) {
+                ids.add(id);
+            }
+        }
+
+        private static <T> List<T> load(Set<String> ids, Map<String, T> into,
+                                        Function<Iterable<String>, List<T>> findAllById, Function<T, String> idOf) {
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            List<T> found = findAllById.apply(ids);
+            for (T entity : found) {
+                into.put(idOf.apply(entity), entity);
+            }
+            return found;
+        }
+    }
+}
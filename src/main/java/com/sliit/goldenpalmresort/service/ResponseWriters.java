@@ -0,0 +1,48 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes list responses of typed rows through one ObjectWriter per row type.
+ *
+ * The writer is built once for List&lt;T&gt; from the application ObjectMapper (so the same
+ * modules and date settings apply), which resolves the root serializer up front instead of
+ * on every request. Controllers return the bytes directly, skipping Spring's per-call type
+ * lookup in the message converter.
+ *
+ * A ResponseEntity&lt;byte[]&gt; hides the payload type from Spring, so nothing else checks the
+ * JSON the dashboards read (e.g. isRead, floorNumber: null); ResponseWritersTest pins it.
+ */
+@Component
+public class ResponseWriters {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectWriter> listWriters = new ConcurrentHashMap<>();
+
+    public ResponseWriters(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> byte[] writeList(List<T> rows, Class<T> type) throws JsonProcessingException {
+        return listWriter(type).writeValueAsBytes(rows);
+    }
+
+    // 200 application/json response with the list already serialized
+    public <T> ResponseEntity<byte[]> okList(List<T> rows, Class<T> type) throws JsonProcessingException {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(writeList(rows, type));
+    }
+
+    public ObjectWriter listWriter(Class<?> type) {
+        return listWriters.computeIfAbsent(type, key ->
+                objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, key)));
+    }
+}
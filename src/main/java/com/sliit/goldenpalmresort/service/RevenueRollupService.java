@@ -0,0 +1,233 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.sliit.goldenpalmresort.model.Payment;
+import com.sliit.goldenpalmresort.model.RevenueDaily;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the revenue_daily rollup: one small document per day and payment method
+ * holding completed, refunded and pending sums and counts.
+ *
+ * Every payment write moves the payment's contribution from its old bucket/column to
+ * its new one with atomic $inc upserts (see {@link PaymentRevenueListener}), and
+ * {@link #rebuild()} recomputes the whole collection from the payments when needed.
+ * Revenue charts and KPIs read the rollup instead of the payments collection.
+ */
+@Service
+public class RevenueRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean rebuildOnStartup;
+
+    public RevenueRollupService(MongoTemplate mongoTemplate,
+                                @Value("${app.revenue.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    // A missing rollup is built on first start; a forced rebuild on every start is opt-in
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        mongoTemplate.indexOps(RevenueDaily.class).ensureIndex(dateIndex());
+        if (rebuildOnStartup || !mongoTemplate.exists(new Query(), RevenueDaily.class)) {
+            rebuild();
+        }
+    }
+
+    // Moves a payment's contribution from its previous state to its current one; either side may be null
+    public void applyChange(Payment previous, Payment current) {
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (current != null) {
+            apply(current, 1);
+        }
+    }
+
+    /**
+     * Batch job: recomputes every bucket from the payments collection.
+     * Payments are streamed with a cursor so the collection is never loaded at once. The result
+     * is written to a scratch collection that then replaces revenue_daily in one rename, so
+     * reports never see a half-built or empty rollup. Increments made by payment writes while
+     * the rebuild runs are replaced by the rebuilt totals, so run it as a repair, not routinely.
+     */
+    public int rebuild() {
+        Map<String, RevenueDaily> buckets = new HashMap<>();
+        try (CloseableIterator<Payment> payments = mongoTemplate.stream(new Query(), Payment.class)) {
+            while (payments.hasNext()) {
+                Payment payment = payments.next();
+                LocalDate date = bucketDate(payment);
+                if (date == null) {
+                    continue;
+                }
+                RevenueDaily bucket = buckets.computeIfAbsent(RevenueDaily.key(date, payment.getPaymentMethod()),
+                        key -> new RevenueDaily(date, payment.getPaymentMethod()));
+                long cents = contributionCents(payment);
+                switch (payment.getPaymentStatus()) {
+                    case COMPLETED -> {
+                        bucket.setCompletedCents(bucket.getCompletedCents() + cents);
+                        bucket.setCompletedCount(bucket.getCompletedCount() + 1);
+                    }
+                    case REFUNDED, PARTIALLY_REFUNDED -> {
+                        bucket.setRefundedCents(bucket.getRefundedCents() + cents);
+                        bucket.setRefundedCount(bucket.getRefundedCount() + 1);
+                    }
+                    case PENDING -> {
+                        bucket.setPendingCents(bucket.getPendingCents() + cents);
+                        bucket.setPendingCount(bucket.getPendingCount() + 1);
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        buckets.values().forEach(bucket -> bucket.setUpdatedAt(now));
+        String target = mongoTemplate.getCollectionName(RevenueDaily.class);
+        String scratch = target + "_rebuild_" + new ObjectId();
+        mongoTemplate.createCollection(scratch);
+        try {
+            mongoTemplate.indexOps(scratch).ensureIndex(dateIndex());
+            if (!buckets.isEmpty()) {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RevenueDaily.class, scratch)
+                        .insert(List.copyOf(buckets.values()))
+                        .execute();
+            }
+            mongoTemplate.getCollection(scratch).renameCollection(
+                    new MongoNamespace(mongoTemplate.getDb().getName(), target),
+                    new RenameCollectionOptions().dropTarget(true));
+        } catch (RuntimeException e) {
+            mongoTemplate.dropCollection(scratch);
+            throw e;
+        }
+        logger.info("Revenue rollup rebuilt: {} daily buckets", buckets.size());
+        return buckets.size();
+    }
+
+    public List<RevenueDaily> findBuckets(LocalDate fromDate, LocalDate toDate) {
+        return mongoTemplate.find(Query.query(Criteria.where("date").gte(fromDate).lte(toDate)), RevenueDaily.class);
+    }
+
+    // Same, aborted by the server once maxTime has passed
+    public List<RevenueDaily> findBuckets(LocalDate fromDate, LocalDate toDate, Duration maxTime) {
+        return mongoTemplate.find(Query.query(Criteria.where("date").gte(fromDate).lte(toDate)).maxTime(maxTime),
+                RevenueDaily.class);
+    }
+
+    // Completed revenue per day in [fromDate, toDate], all payment methods combined
+    public Map<LocalDate, BigDecimal> completedByDay(LocalDate fromDate, LocalDate toDate) {
+        Map<LocalDate, BigDecimal> byDay = new TreeMap<>();
+        for (RevenueDaily bucket : findBuckets(fromDate, toDate)) {
+            byDay.merge(bucket.getDate(), fromCents(bucket.getCompletedCents()), BigDecimal::add);
+        }
+        return byDay;
+    }
+
+    public BigDecimal completedBetween(LocalDate fromDate, LocalDate toDate) {
+        return completedTotal(findBuckets(fromDate, toDate));
+    }
+
+    public BigDecimal completedBetween(LocalDate fromDate, LocalDate toDate, Duration maxTime) {
+        return completedTotal(findBuckets(fromDate, toDate, maxTime));
+    }
+
+    private static BigDecimal completedTotal(List<RevenueDaily> buckets) {
+        long cents = 0;
+        for (RevenueDaily bucket : buckets) {
+            cents += bucket.getCompletedCents();
+        }
+        return fromCents(cents);
+    }
+
+    private static Index dateIndex() {
+        return new Index().on("date", Sort.Direction.ASC).named("revenue_date");
+    }
+
+    private void apply(Payment payment, int sign) {
+        LocalDate date = bucketDate(payment);
+        String column = column(payment.getPaymentStatus());
+        if (date == null || column == null) {
+            return;
+        }
+        Update update = new Update()
+                .inc(column + "Cents", sign * contributionCents(payment))
+                .inc(column + "Count", sign)
+                .set("updatedAt", LocalDateTime.now())
+                .setOnInsert("date", date)
+                .setOnInsert("paymentMethod", payment.getPaymentMethod());
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(RevenueDaily.key(date, payment.getPaymentMethod()))),
+                update, RevenueDaily.class);
+    }
+
+    private static String column(Payment.PaymentStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case COMPLETED -> "completed";
+            case REFUNDED, PARTIALLY_REFUNDED -> "refunded";
+            case PENDING -> "pending";
+            default -> null;
+        };
+    }
+
+    // Same day the existing revenue reports use; pending payments have no payment date yet
+    private static LocalDate bucketDate(Payment payment) {
+        if (payment.getPaymentStatus() == null) {
+            return null;
+        }
+        if (payment.getPaymentDate() != null) {
+            return payment.getPaymentDate().toLocalDate();
+        }
+        if (payment.getPaymentStatus() == Payment.PaymentStatus.PENDING && payment.getCreatedAt() != null) {
+            return payment.getCreatedAt().toLocalDate();
+        }
+        return null;
+    }
+
+    private static long contributionCents(Payment payment) {
+        BigDecimal amount = payment.getAmount();
+        if ((payment.getPaymentStatus() == Payment.PaymentStatus.REFUNDED
+                || payment.getPaymentStatus() == Payment.PaymentStatus.PARTIALLY_REFUNDED)
+                && payment.getRefundAmount() != null) {
+            amount = payment.getRefundAmount();
+        }
+        return toCents(amount);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
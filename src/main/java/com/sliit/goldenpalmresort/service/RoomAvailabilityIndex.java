@@ -0,0 +1,421 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.Room;
+import com.sliit.goldenpalmresort.repository.BookingRepository;
+import com.sliit.goldenpalmresort.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory night-by-night occupancy for every room.
+ *
+ * Each room keeps one BitSet where bit n is the night starting n days after
+ * {@link #ORIGIN_EPOCH_DAY}. A stay from check-in to check-out occupies the nights
+ * [checkIn, checkOut), so a guest can check in on the day another checks out.
+ * Availability checks are bit scans and never touch Mongo once the index is loaded. The
+ * index starts at the 1st of the current month and keeps checked-out stays up to their
+ * departure, so the current month's calendar, past days included, is read from it too; only
+ * calendars of earlier months query Mongo.
+ *
+ * Writes on this node update the index at once. Bookings made on other nodes are picked up
+ * by a full reload every {@code app.availability.resync-ms}; the night_claims ledger, not this
+ * index, is what finally rejects a double booking across nodes.
+ */
+@Service
+public class RoomAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    // Bit 0 of every room bitmap is the night of 2020-01-01
+    static final long ORIGIN_EPOCH_DAY = LocalDate.of(2020, 1, 1).toEpochDay();
+
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+
+    private volatile Map<String, RoomNights> rooms = new ConcurrentHashMap<>();
+    private volatile Map<String, String> roomByBooking = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private volatile LocalDate indexedFrom = LocalDate.MAX;
+
+    // The maps above are swapped only under the write lock; writes to them hold the read lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Queue<Runnable> replay;
+
+    public RoomAvailabilityIndex(BookingRepository bookingRepository, RoomRepository roomRepository) {
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    // Runs after DataInitializationService so seeded bookings are included
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int stays = reload();
+        logger.info("Room availability index loaded: {} rooms, {} active stays", rooms.size(), stays);
+    }
+
+    // Brings in bookings written by other nodes
+    @Scheduled(initialDelayString = "${app.availability.resync-ms:30000}", fixedDelayString = "${app.availability.resync-ms:30000}")
+    public void resync() {
+        if (loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Reads rooms and stays into a fresh index and swaps it in whole, so readers never see a
+     * partial one. Writes made on this node while Mongo is being read are replayed onto the
+     * fresh index before it is published, so none of them is lost to the swap.
+     */
+    private synchronized int reload() {
+        Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        replay = pending;
+
+        Map<String, RoomNights> fresh = new ConcurrentHashMap<>();
+        Map<String, String> freshBookings = new ConcurrentHashMap<>();
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.withDayOfMonth(1);
+        try {
+            for (Room room : roomRepository.findAll()) {
+                fresh.put(room.getId(), new RoomNights(room));
+            }
+            int stays = 0;
+            for (Booking booking : bookingRepository.findStaysSince(from)) {
+                RoomNights nights = fresh.get(booking.getRoomId());
+                if (nights == null || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+                    continue;
+                }
+                if (booking.getStatus() == Booking.BookingStatus.CHECKED_OUT) {
+                    // Past nights only; an early departure freed the rest
+                    LocalDate departed = departure(booking, today);
+                    if (departed.isAfter(booking.getCheckInDate())) {
+                        nights.occupy(booking.getId(), booking.getCheckInDate(), departed);
+                        freshBookings.put(booking.getId(), booking.getRoomId());
+                    }
+                    continue;
+                }
+                nights.occupy(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate());
+                freshBookings.put(booking.getId(), booking.getRoomId());
+                stays++;
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                rooms = fresh;
+                roomByBooking = freshBookings;
+                indexedFrom = from;
+                replay = null;
+                pending.forEach(Runnable::run);
+                loaded = true;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            return stays;
+        } finally {
+            replay = null;
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Called whenever a room is added or edited so capacity/status filters stay current
+    public void refreshRoom(Room room) {
+        if (room == null || room.getId() == null) {
+            return;
+        }
+        write(() -> rooms.compute(room.getId(), (id, existing) -> {
+            if (existing == null) {
+                return new RoomNights(room);
+            }
+            existing.room = room;
+            return existing;
+        }));
+    }
+
+    public void occupy(Booking booking) {
+        if (booking.getStatus() == Booking.BookingStatus.CANCELLED) {
+            release(booking.getId());
+            return;
+        }
+        if (booking.getStatus() == Booking.BookingStatus.CHECKED_OUT) {
+            // The nights already spent stay on the calendar
+            endStay(booking.getId(), departure(booking, LocalDate.now()));
+            return;
+        }
+        occupy(booking.getId(), booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate());
+    }
+
+    public void occupy(String bookingId, String roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (bookingId == null || roomId == null || checkInDate == null || checkOutDate == null) {
+            return;
+        }
+        write(() -> {
+            // A booking that moved rooms must give up its old nights first
+            String previousRoom = roomByBooking.put(bookingId, roomId);
+            if (previousRoom != null && !previousRoom.equals(roomId)) {
+                RoomNights previous = rooms.get(previousRoom);
+                if (previous != null) {
+                    previous.release(bookingId);
+                }
+            }
+            rooms.computeIfAbsent(roomId, id -> new RoomNights(null))
+                    .occupy(bookingId, checkInDate, checkOutDate);
+        });
+    }
+
+    public void release(String bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        write(() -> {
+            String roomId = roomByBooking.remove(bookingId);
+            if (roomId == null) {
+                return;
+            }
+            RoomNights nights = rooms.get(roomId);
+            if (nights != null) {
+                nights.release(bookingId);
+            }
+        });
+    }
+
+    // Early check-out: frees every night from departureDate onwards
+    public void endStay(String bookingId, LocalDate departureDate) {
+        if (bookingId == null) {
+            return;
+        }
+        write(() -> {
+            String roomId = roomByBooking.get(bookingId);
+            if (roomId == null) {
+                return;
+            }
+            RoomNights nights = rooms.get(roomId);
+            if (nights != null) {
+                nights.truncate(bookingId, departureDate);
+            }
+            roomByBooking.remove(bookingId);
+        });
+    }
+
+    // Applies a change now and, while a reload is reading Mongo, again to the index it is building
+    private void write(Runnable change) {
+        swapLock.readLock().lock();
+        try {
+            change.run();
+            Queue<Runnable> pending = replay;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public boolean isAvailable(String roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        RoomNights nights = rooms.get(roomId);
+        return nights == null || nights.isFree(nightIndex(checkInDate), nightIndex(checkOutDate));
+    }
+
+    public List<Room> findAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, Integer guestCount) {
+        int from = nightIndex(checkInDate);
+        int to = nightIndex(checkOutDate);
+        int guests = guestCount != null ? guestCount : 1;
+
+        List<Room> available = new ArrayList<>();
+        for (RoomNights nights : rooms.values()) {
+            Room room = nights.room;
+            if (!isBookable(room, guests)) {
+                continue;
+            }
+            if (nights.isFree(from, to)) {
+                available.add(room);
+            }
+        }
+        available.sort(Comparator.comparing(Room::getRoomNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        return available;
+    }
+
+    /**
+     * Occupied nights of every active room for one month; bit 0 of each mask is the 1st of the month.
+     * Months from the current one on come straight from the index; earlier months are history the
+     * index does not hold, so those (rare) requests read Mongo.
+     */
+    public Map<Room, Long> monthOccupancy(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        int from = nightIndex(first);
+        int to = from + month.lengthOfMonth();
+        Map<String, Long> history = first.isBefore(indexedFrom)
+                ? historicOccupancy(first, month.atEndOfMonth().plusDays(1))
+                : null;
+
+        Map<Room, Long> grid = new TreeMap<>(Comparator.comparing(Room::getRoomNumber,
+                Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Room::getId));
+        for (RoomNights nights : rooms.values()) {
+            Room room = nights.room;
+            if (room != null && room.isActive()) {
+                grid.put(room, history != null ? history.getOrDefault(room.getId(), 0L) : nights.mask(from, to));
+            }
+        }
+        return grid;
+    }
+
+    // Masks of nights in [first, end) taken by any stay that was not cancelled, bit 0 being `first`
+    private Map<String, Long> historicOccupancy(LocalDate first, LocalDate end) {
+        Map<String, Long> masks = new HashMap<>();
+        for (Booking booking : bookingRepository.findStaysBetween(first, end)) {
+            if (booking.getRoomId() == null || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+                continue;
+            }
+            long fromBit = Math.max(0, booking.getCheckInDate().toEpochDay() - first.toEpochDay());
+            long toBit = Math.min(end.toEpochDay(), booking.getCheckOutDate().toEpochDay()) - first.toEpochDay();
+            if (toBit > fromBit) {
+                long bits = ((1L << toBit) - 1) & ~((1L << fromBit) - 1);
+                masks.merge(booking.getRoomId(), bits, (a, b) -> a | b);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Feasible check-in dates for a stay of the given length, for every bookable room.
+     * Bit i of each room's set means a stay starting on earliestCheckIn + i days is free.
+     */
+    public Map<Room, BitSet> findFeasibleCheckIns(LocalDate earliestCheckIn, LocalDate latestCheckIn,
+                                                  int nights, Integer guestCount) {
+        int from = nightIndex(earliestCheckIn);
+        int to = nightIndex(latestCheckIn);
+        int guests = guestCount != null ? guestCount : 1;
+
+        Map<Room, BitSet> feasible = new HashMap<>();
+        for (RoomNights roomNights : rooms.values()) {
+            Room room = roomNights.room;
+            if (!isBookable(room, guests)) {
+                continue;
+            }
+            BitSet starts = roomNights.freeStarts(from, to, nights);
+            if (!starts.isEmpty()) {
+                feasible.put(room, starts);
+            }
+        }
+        return feasible;
+    }
+
+    static boolean isBookable(Room room, int guests) {
+        return room != null
+                && room.isActive()
+                && room.getStatus() != Room.RoomStatus.MAINTENANCE
+                && room.getStatus() != Room.RoomStatus.BLOCKED
+                && room.getCapacity() != null
+                && room.getCapacity() >= guests;
+    }
+
+    // Day a checked-out guest left: the last update (the check-out itself), never after the booked date
+    private static LocalDate departure(Booking booking, LocalDate today) {
+        LocalDate left = booking.getUpdatedAt() != null ? booking.getUpdatedAt().toLocalDate() : today;
+        return booking.getCheckOutDate() != null && booking.getCheckOutDate().isBefore(left) ? booking.getCheckOutDate() : left;
+    }
+
+    static int nightIndex(LocalDate date) {
+        return (int) Math.max(0, date.toEpochDay() - ORIGIN_EPOCH_DAY);
+    }
+
+    // Occupied nights of a single room plus the stays that produced them
+    static final class RoomNights {
+
+        volatile Room room;
+        private final BitSet occupied = new BitSet();
+        private final Map<String, int[]> stays = new HashMap<>();
+
+        RoomNights(Room room) {
+            this.room = room;
+        }
+
+        synchronized void occupy(String bookingId, LocalDate checkInDate, LocalDate checkOutDate) {
+            int from = nightIndex(checkInDate);
+            int to = nightIndex(checkOutDate);
+            int[] previous = stays.put(bookingId, new int[] { from, to });
+            if (previous != null) {
+                recompute();
+            } else if (to > from) {
+                occupied.set(from, to);
+            }
+        }
+
+        synchronized void release(String bookingId) {
+            if (stays.remove(bookingId) != null) {
+                recompute();
+            }
+        }
+
+        synchronized void truncate(String bookingId, LocalDate departureDate) {
+            int[] stay = stays.get(bookingId);
+            if (stay == null) {
+                return;
+            }
+            stay[1] = Math.max(stay[0], Math.min(stay[1], nightIndex(departureDate)));
+            if (stay[1] == stay[0]) {
+                stays.remove(bookingId);
+            }
+            recompute();
+        }
+
+        synchronized boolean isFree(int from, int to) {
+            int next = occupied.nextSetBit(from);
+            return next < 0 || next >= to;
+        }
+
+        // Every start in [from, to] whose next `nights` nights are all free, offset from `from`
+        synchronized BitSet freeStarts(int from, int to, int nights) {
+            BitSet starts = new BitSet();
+            int start = from;
+            while (start <= to) {
+                int next = occupied.nextSetBit(start);
+                if (next < 0 || next >= start + nights) {
+                    starts.set(start - from);
+                    start++;
+                } else {
+                    // Any start up to an occupied night would include it
+                    start = next + 1;
+                }
+            }
+            return starts;
+        }
+
+        // At most 63 nights, so the slice always fits in a single word
+        synchronized long mask(int from, int to) {
+            long[] words = occupied.get(from, to).toLongArray();
+            return words.length == 0 ? 0L : words[0];
+        }
+
+        // Overlapping legacy stays mean clearing one stay's bits could free a night another stay still holds
+        private void recompute() {
+            occupied.clear();
+            for (int[] stay : stays.values()) {
+                if (stay[1] > stay[0]) {
+                    occupied.set(stay[0], stay[1]);
+                }
+            }
+        }
+    }
+}
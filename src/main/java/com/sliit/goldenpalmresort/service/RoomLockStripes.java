@@ -0,0 +1,47 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks that serializes reservations per room on this node.
+ *
+ * A room id always hashes to the same stripe, so two requests for one room run
+ * the availability check and the save back to back. Other rooms land on other
+ * stripes and proceed in parallel; with the default 64 stripes and a few dozen
+ * rooms, two rooms sharing a stripe only costs a short wait, never correctness.
+ * Event bookings take a stripe for their space under an "event-space:" key.
+ */
+@Component
+public class RoomLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public RoomLockStripes(@Value("${app.booking.lock-stripes:64}") int stripeCount) {
+        // Round up to a power of two so the stripe index is a mask instead of a modulo
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock lockFor(String roomId) {
+        return stripes[indexFor(roomId)];
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    int indexFor(String roomId) {
+        int h = roomId != null ? roomId.hashCode() : 0;
+        // Spread high bits down so ids that differ only in their prefix still separate
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+}
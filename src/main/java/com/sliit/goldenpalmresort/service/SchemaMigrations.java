@@ -0,0 +1,61 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Leases on one-shot startup migrations, one document per migration in schema_migrations.
+ *
+ * A node claims a migration before running it, so only one node of a cluster runs it and
+ * later startups skip it once it is marked complete. A claim that never completed (the node
+ * died mid-run) is taken over once it is older than app.migration.lease-minutes, so the
+ * migrations themselves must be safe to run again.
+ */
+@Component
+public class SchemaMigrations {
+
+    private static final String MIGRATIONS = "schema_migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final long leaseMinutes;
+
+    public SchemaMigrations(MongoTemplate mongoTemplate,
+                            @Value("${app.migration.lease-minutes:30}") long leaseMinutes) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseMinutes = leaseMinutes;
+    }
+
+    // Upsert on the unique _id: inserts a fresh lease or takes over an abandoned one. A completed
+    // or still-live lease doesn't match, so the upsert collides on _id and this node must skip the run
+    public boolean claim(String migrationId) {
+        LocalDateTime now = LocalDateTime.now();
+        Query abandoned = new Query(Criteria.where("_id").is(migrationId)
+                .and("completedAt").exists(false)
+                .and("startedAt").lt(now.minusMinutes(leaseMinutes)));
+        try {
+            mongoTemplate.upsert(abandoned, new Update().set("startedAt", now), MIGRATIONS);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Gives the claim back after a failed run so the next startup retries
+    public void release(String migrationId) {
+        mongoTemplate.getCollection(MIGRATIONS).deleteOne(Filters.eq("_id", migrationId));
+    }
+
+    public void complete(String migrationId, long documents) {
+        mongoTemplate.getCollection(MIGRATIONS).updateOne(Filters.eq("_id", migrationId),
+                Updates.combine(Updates.set("documents", documents), Updates.set("completedAt", LocalDateTime.now())));
+    }
+}
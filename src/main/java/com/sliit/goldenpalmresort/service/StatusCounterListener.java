@@ -0,0 +1,110 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.CountedStatus;
+import com.sliit.goldenpalmresort.model.EventBooking;
+import com.sliit.goldenpalmresort.model.Payment;
+import com.sliit.goldenpalmresort.model.RefundRequest;
+import com.sliit.goldenpalmresort.model.Room;
+import com.sliit.goldenpalmresort.model.User;
+import org.bson.Document;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link StatusCounters} from every save and delete of the counted entities.
+ *
+ * Each {@link CountedStatus} entity carries the value it was loaded with (set on
+ * AfterConvert), so the counter is moved on AfterSave, once the write went through, without
+ * reading the stored copy. Saves that leave the value unchanged don't touch the counters; only
+ * a status or role change, a new document or a delete does. An entity that was built rather
+ * than loaded but already has an id (e.g. bound from a request body) is the one case that
+ * still reads the stored value first.
+ */
+@Component
+public class StatusCounterListener implements ApplicationListener<MongoMappingEvent<?>> {
+
+    private final MongoTemplate mongoTemplate;
+    private final StatusCounters counters;
+
+    public StatusCounterListener(MongoTemplate mongoTemplate, StatusCounters counters) {
+        this.mongoTemplate = mongoTemplate;
+        this.counters = counters;
+    }
+
+    @Override
+    public void onApplicationEvent(MongoMappingEvent<?> event) {
+        if (event instanceof AfterConvertEvent<?> load && load.getSource() instanceof CountedStatus entity) {
+            entity.markStored(nameOf(entity.countedValue()));
+        } else if (event instanceof BeforeSaveEvent<?> save && save.getSource() instanceof CountedStatus entity) {
+            beforeSave(entity, save.getDocument());
+        } else if (event instanceof AfterSaveEvent<?> save && save.getSource() instanceof CountedStatus entity) {
+            afterSave(entity);
+        } else if (event instanceof BeforeDeleteEvent<?> delete) {
+            onDelete(delete);
+        }
+    }
+
+    // Detached entity with an id: nothing was carried, so fall back to the stored copy
+    private void beforeSave(CountedStatus entity, Document document) {
+        StatusCounters.Kind kind = kindOf(entity.getClass());
+        Object id = document != null ? document.get("_id") : null;
+        if (kind != null && id != null && entity.storedValue() == null) {
+            entity.markStored(storedValue(kind, id));
+        }
+    }
+
+    private void afterSave(CountedStatus entity) {
+        StatusCounters.Kind kind = kindOf(entity.getClass());
+        if (kind == null) {
+            return;
+        }
+        String current = nameOf(entity.countedValue());
+        counters.transition(kind, entity.storedValue(), current);
+        entity.markStored(current);
+    }
+
+    // Only single-document deletes carry a plain _id; bulk query deletes are left to reconciliation
+    private void onDelete(BeforeDeleteEvent<?> event) {
+        StatusCounters.Kind kind = kindOf(event.getType());
+        Document query = event.getDocument();
+        Object id = query != null ? query.get("_id") : null;
+        if (kind == null || id == null || id instanceof Document) {
+            return;
+        }
+        String previous = storedValue(kind, id);
+        if (previous != null) {
+            counters.transition(kind, previous, null);
+        }
+    }
+
+    private String storedValue(StatusCounters.Kind kind, Object id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include(kind.field);
+        Document stored = mongoTemplate.findOne(query, Document.class, kind.collection);
+        Object value = stored != null ? stored.get(kind.field) : null;
+        return value != null ? value.toString() : null;
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static StatusCounters.Kind kindOf(Class<?> type) {
+        if (type == Booking.class) return StatusCounters.Kind.BOOKING;
+        if (type == EventBooking.class) return StatusCounters.Kind.EVENT_BOOKING;
+        if (type == Payment.class) return StatusCounters.Kind.PAYMENT;
+        if (type == RefundRequest.class) return StatusCounters.Kind.REFUND_REQUEST;
+        if (type == User.class) return StatusCounters.Kind.USER;
+        if (type == Room.class) return StatusCounters.Kind.ROOM;
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-status (and per-role) document counts for the analytics endpoints.
+ *
+ * {@link StatusCounterListener} moves a count from the old value to the new one on every
+ * save and delete, so reads are O(1). Writes made by other nodes, or directly in Mongo,
+ * are picked up by the periodic {@link #reconcile()}, which replaces every counter with a
+ * $group count.
+ */
+@Service
+public class StatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusCounters.class);
+
+    public enum Kind {
+        BOOKING("bookings", "status"),
+        EVENT_BOOKING("event_bookings", "status"),
+        PAYMENT("payments", "paymentStatus"),
+        REFUND_REQUEST("refund_requests", "status"),
+        USER("users", "role"),
+        ROOM("rooms", "status");
+
+        final String collection;
+        final String field;
+
+        Kind(String collection, String field) {
+            this.collection = collection;
+            this.field = field;
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<Kind, Map<String, AtomicLong>> counters = new EnumMap<>(Kind.class);
+    private volatile boolean loaded = false;
+
+    public StatusCounters(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        for (Kind kind : Kind.values()) {
+            counters.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    // Moves one document from its previous value to its current one; either side may be null
+    public void transition(Kind kind, String previous, String current) {
+        if (previous != null && previous.equals(current)) {
+            return;
+        }
+        if (previous != null) {
+            counter(kind, previous).decrementAndGet();
+        }
+        if (current != null) {
+            counter(kind, current).incrementAndGet();
+        }
+    }
+
+    public long count(Kind kind, Enum<?> value) {
+        ensureLoaded();
+        AtomicLong counter = counters.get(kind).get(value.name());
+        return counter != null ? Math.max(0, counter.get()) : 0;
+    }
+
+    public long total(Kind kind) {
+        ensureLoaded();
+        long total = 0;
+        for (AtomicLong counter : counters.get(kind).values()) {
+            total += Math.max(0, counter.get());
+        }
+        return total;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.counters.reconcile-ms:60000}", fixedDelayString = "${app.counters.reconcile-ms:60000}")
+    public void reconcile() {
+        for (Kind kind : Kind.values()) {
+            Map<String, Long> fresh = new HashMap<>();
+            for (Document row : mongoTemplate.aggregate(
+                    Aggregation.newAggregation(Aggregation.group(kind.field).count().as("count")),
+                    kind.collection, Document.class)) {
+                Object value = row.get("_id");
+                if (value != null) {
+                    fresh.put(value.toString(), ((Number) row.get("count")).longValue());
+                }
+            }
+
+            Map<String, AtomicLong> live = counters.get(kind);
+            live.forEach((value, counter) -> {
+                if (!fresh.containsKey(value)) {
+                    counter.set(0);
+                }
+            });
+            fresh.forEach((value, count) -> {
+                long drift = counter(kind, value).getAndSet(count) - count;
+                if (loaded && drift != 0) {
+                    logger.debug("Counter {}.{} reconciled (drift {})", kind, value, drift);
+                }
+            });
+        }
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reconcile();
+                }
+            }
+        }
+    }
+
+    private AtomicLong counter(Kind kind, String value) {
+        return counters.get(kind).computeIfAbsent(value, key -> new AtomicLong());
+    }
+}
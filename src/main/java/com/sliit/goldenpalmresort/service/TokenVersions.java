@@ -0,0 +1,94 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.TokenRevocation;
+import com.sliit.goldenpalmresort.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token versions, so tokens can be revoked without a user lookup per request.
+ *
+ * Every issued token carries the user's tokenVersion. {@link #revoke(User)} increments it and
+ * records the new minimum in token_revocations; tokens below a user's minimum are rejected.
+ * The in-memory map holds only users revoked within the token lifetime (rows expire through
+ * a TTL index), and is reloaded from Mongo periodically so revocations on other nodes are
+ * enforced within {@code app.auth.revocation-sync-ms}.
+ */
+@Service
+public class TokenVersions {
+
+    // Minimum for deleted users: no token of theirs is current
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final MongoTemplate mongoTemplate;
+    private final long tokenLifetimeMs;
+    private volatile Map<String, Long> minVersions = Map.of();
+
+    public TokenVersions(MongoTemplate mongoTemplate, @Value("${jwt.expiration}") long tokenLifetimeMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(TokenRevocation.class).ensureIndex(new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .expire(0, TimeUnit.SECONDS)
+                .named("expires_ttl"));
+        sync();
+    }
+
+    public boolean isCurrent(String userId, long tokenVersion) {
+        Long min = minVersions.get(userId);
+        return min == null || tokenVersion >= min;
+    }
+
+    // Invalidates every token issued to the user so far; call after the user document is saved
+    public void revoke(User user) {
+        User updated = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(user.getId())),
+                new Update().inc("tokenVersion", 1), FindAndModifyOptions.options().returnNew(true), User.class);
+        if (updated != null) {
+            user.setTokenVersion(updated.getTokenVersion());
+            record(user.getId(), updated.getTokenVersion());
+        }
+    }
+
+    public void revokeDeleted(String userId) {
+        record(userId, DELETED);
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.revocation-sync-ms:10000}", fixedDelayString = "${app.auth.revocation-sync-ms:10000}")
+    public synchronized void sync() {
+        Map<String, Long> fresh = new HashMap<>();
+        for (TokenRevocation revocation : mongoTemplate.findAll(TokenRevocation.class)) {
+            fresh.put(revocation.getId(), revocation.getMinVersion());
+        }
+        minVersions = fresh;
+    }
+
+    // Synchronized with sync() so a reload in progress cannot drop a revocation just made
+    private synchronized void record(String userId, long minVersion) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)),
+                new Update().max("minVersion", minVersion)
+                        .set("expiresAt", new Date(System.currentTimeMillis() + tokenLifetimeMs)),
+                TokenRevocation.class);
+        Map<String, Long> updated = new HashMap<>(minVersions);
+        updated.merge(userId, minVersion, Math::max);
+        minVersions = updated;
+    }
+}
@@ -0,0 +1,154 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.model.User;
+import com.sliit.goldenpalmresort.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cached user lookups by id, username and email for resolving the current user of a request.
+ *
+ * Entries live for {@code app.users.cache-ttl-ms} and at most {@code app.users.cache-size}
+ * users are kept. The admin and manager user endpoints invalidate a user when they change
+ * it; edits made on other nodes show up once the entry expires. Returned users are shared,
+ * so callers must not modify them. Reads that must see the latest document (password
+ * checks, uniqueness checks) keep going to the repository.
+ */
+@Component
+public class UserDirectory {
+
+    private record Entry(User user, long expiresAt) {}
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMs;
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, String> idByUsername = new ConcurrentHashMap<>();
+    private final Map<String, String> idByEmail = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserDirectory(UserRepository userRepository,
+                         @Value("${app.users.cache-size:5000}") int maxEntries,
+                         @Value("${app.users.cache-ttl-ms:60000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return lookup(id, () -> userRepository.findById(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return lookup(idByUsername.get(username), () -> userRepository.findByUsername(username));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return lookup(idByEmail.get(email), () -> userRepository.findByEmail(email));
+    }
+
+    // Call after saving or deleting a user
+    public void invalidate(User user) {
+        invalidate(user.getId());
+        // The document may have been renamed since it was cached
+        unindex(user);
+    }
+
+    public void invalidate(String id) {
+        Entry entry = id != null ? byId.remove(id) : null;
+        if (entry != null) {
+            unindex(entry.user());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", byId.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests > 0 ? (double) hitCount / requests : 0.0);
+        return stats;
+    }
+
+    private Optional<User> lookup(String id, Supplier<Optional<User>> load) {
+        Entry entry = id != null ? byId.get(id) : null;
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return Optional.of(entry.user());
+        }
+        misses.increment();
+        Optional<User> loaded = load.get();
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    private void put(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        if (byId.size() >= maxEntries) {
+            makeRoom();
+        }
+        Entry previous = byId.put(user.getId(), new Entry(user, System.currentTimeMillis() + ttlMs));
+        if (previous != null) {
+            unindex(previous.user());
+        }
+        if (user.getUsername() != null) {
+            idByUsername.put(user.getUsername(), user.getId());
+        }
+        if (user.getEmail() != null) {
+            idByEmail.put(user.getEmail(), user.getId());
+        }
+    }
+
+    private void unindex(User user) {
+        if (user.getUsername() != null) {
+            idByUsername.remove(user.getUsername(), user.getId());
+        }
+        if (user.getEmail() != null) {
+            idByEmail.remove(user.getEmail(), user.getId());
+        }
+    }
+
+    // Expired entries first, then arbitrary ones
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> entries = byId.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.expiresAt() <= now) {
+                entries.remove();
+                unindex(entry.user());
+            }
+        }
+        entries = byId.values().iterator();
+        while (byId.size() >= maxEntries && entries.hasNext()) {
+            Entry entry = entries.next();
+            entries.remove();
+            unindex(entry.user());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sliit.goldenpalmresort.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bearer tokens that already passed signature verification, with the principal they resolved to.
+ *
+ * Keyed by the SHA-256 of the token so raw tokens are not kept in memory. An entry lives until
+ * the token expires, capped at {@code app.auth.token-cache-ttl-ms} so changes to the user are
+ * picked up within that window. When the cache is full, expired entries are dropped first,
+ * then arbitrary ones.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(UserDetails principal, long expiresAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxAgeMs;
+
+    public VerifiedTokenCache(@Value("${app.auth.token-cache-size:10000}") int maxEntries,
+                              @Value("${app.auth.token-cache-ttl-ms:300000}") long maxAgeMs) {
+        this.maxEntries = maxEntries;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    // Null when the token was not verified recently
+    public UserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(String token, UserDetails principal, long tokenExpiresAt) {
+        long expiresAt = Math.min(tokenExpiresAt, System.currentTimeMillis() + maxAgeMs);
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(hash(token), new Entry(principal, expiresAt));
+    }
+
+    // Drops every cached token of a user, e.g. after a role change or deactivation
+    public void evictUser(String username) {
+        entries.values().removeIf(entry -> entry.principal().getUsername().equals(username));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.token-cache-sweep-ms:60000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    private void makeRoom() {
+        removeExpired();
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
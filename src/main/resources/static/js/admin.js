@@ -264,7 +264,7 @@ function displayRecentBookings(bookings) {
 // Load users
 async function loadUsers() {
     try {
-        const response = await fetch('/api/admin/users', {
+        const response = await fetchAllPages('/api/admin/users', {
             headers: {
                 'Authorization': `Bearer ${localStorage.getItem('authToken')}`
             }
@@ -421,7 +421,7 @@ function displayEventSpaces(eventSpaces) {
 // Load bookings
 async function loadBookings() {
     try {
-        const response = await fetch('/api/admin/bookings', {
+        const response = await fetchAllPages('/api/admin/bookings', {
             headers: {
                 'Authorization': `Bearer ${localStorage.getItem('authToken')}`
             }
@@ -1341,7 +1341,7 @@ async function displayRoomPhotos(roomId) {
                         photoDiv.className = 'col-md-3 mb-2';
                         photoDiv.innerHTML = `
                             <div class="card">
-                                <img src="/api/photos/${photo.id}/download" class="card-img-top" style="height: 100px; object-fit: cover;" alt="${photo.originalFileName}">
+                                <img src="${(photo.renditionUrls && photo.renditionUrls.thumbnail) || `/api/photos/${photo.id}/download?size=thumbnail`}" class="card-img-top" style="height: 100px; object-fit: cover;" alt="${photo.originalFileName}">
                                 <div class="card-body p-2">
                                     <small class="text-muted d-block mb-1">${photo.originalFileName || 'Photo'}</small>
                                     <button class="btn btn-sm btn-danger w-100" onclick="deletePhoto(${photo.id})">
@@ -2223,7 +2223,7 @@ async function loadRoomStatusData() {
 // Load user roles data
 async function loadUserRolesData() {
     try {
-        const response = await fetch('/api/admin/users', {
+        const response = await fetchAllPages('/api/admin/users', {
             headers: {
                 'Authorization': `Bearer ${localStorage.getItem('authToken')}`
             }
@@ -2260,7 +2260,7 @@ async function loadUserRolesData() {
 // Load booking status data
 async function loadBookingStatusData() {
     try {
-        const response = await fetch('/api/admin/bookings', {
+        const response = await fetchAllPages('/api/admin/bookings', {
             headers: {
                 'Authorization': `Bearer ${localStorage.getItem('authToken')}`
             }
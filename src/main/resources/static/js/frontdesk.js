@@ -674,7 +674,7 @@ async function loadAllBookings() {
         const token = localStorage.getItem('authToken');
         console.log('Auth token:', token ? 'Present' : 'Missing');
         
-        const response = await fetch('/api/frontdesk/all-bookings', {
+        const response = await fetchAllPages('/api/frontdesk/all-bookings', {
             headers: {
                 'Authorization': `Bearer ${token}`,
                 'Content-Type': 'application/json'
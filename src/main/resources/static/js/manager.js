@@ -113,7 +113,7 @@ function loadTabContent(tabName) {
 // ==================== BOOKING MANAGEMENT ====================
 
 function loadAllBookings() {
-    fetch('/api/manager/bookings', {
+    fetchAllPages('/api/manager/bookings', {
         method: 'GET',
         headers: {
             'Authorization': 'Bearer ' + authToken,
@@ -0,0 +1,27 @@
+// Keyset-paged listings return at most one page per request and put the token for the
+// next one in the X-Next-Cursor header. fetchAllPages follows it and resolves to a single
+// Response whose JSON body is every page concatenated, so callers keep using ok/json().
+const PAGED_FETCH_LIMIT = 500;
+
+async function fetchAllPages(url, options = {}) {
+    const rows = [];
+    let cursor = null;
+    do {
+        const pageUrl = new URL(url, window.location.origin);
+        pageUrl.searchParams.set('limit', PAGED_FETCH_LIMIT);
+        if (cursor) {
+            pageUrl.searchParams.set('cursor', cursor);
+        }
+        const response = await fetch(pageUrl, options);
+        if (!response.ok) {
+            return response;
+        }
+        rows.push(...await response.json());
+        cursor = response.headers.get('X-Next-Cursor');
+    } while (cursor);
+
+    return new Response(JSON.stringify(rows), {
+        status: 200,
+        headers: { 'Content-Type': 'application/json' }
+    });
+}
@@ -51,7 +51,7 @@ function loadStatistics() {
 
 function loadAllPayments() {
     console.log('Loading all payments...');
-    fetch('/api/payment-officer/payments', { headers: authHeaders() })
+    fetchAllPages('/api/payment-officer/payments', { headers: authHeaders() })
         .then(response => {
             console.log('Payments response status:', response.status);
             return response.json();
@@ -0,0 +1,184 @@
+package com.sliit.goldenpalmresort.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Photo download from a local file over a socket: the stream copy the resource converter
+ * does (file stream, 8 KB heap buffer, socket stream) against FileChannel.transferTo, which
+ * is sendfile on Linux. 200 threads each own a connection to a draining local server.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.sliit.goldenpalmresort.benchmark.PhotoFileTransferBenchmark}.
+ * Throughput is downloads per second; the "cpu ns/download" line printed after each trial
+ * is the sending threads' CPU time divided by the downloads they completed (warmup included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(200)
+public class PhotoFileTransferBenchmark {
+
+    private static final int COPY_BUFFER_BYTES = 8192;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @Param({"1048576", "5242880"})
+    private int photoBytes;
+
+    private Path photo;
+    private ServerSocketChannel sink;
+    private Thread acceptor;
+
+    private final AtomicLong cpuNanos = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class Connection {
+
+        SocketChannel socket;
+        OutputStream socketStream;
+        final byte[] buffer = new byte[COPY_BUFFER_BYTES];
+        long cpuAtStart;
+        long downloads;
+
+        @Setup(Level.Trial)
+        public void connect(PhotoFileTransferBenchmark benchmark) throws IOException {
+            socket = SocketChannel.open(benchmark.sink.getLocalAddress());
+            socketStream = Channels.newOutputStream(socket);
+        }
+
+        @Setup(Level.Iteration)
+        public void startIteration() {
+            cpuAtStart = THREADS.getCurrentThreadCpuTime();
+            downloads = 0;
+        }
+
+        // Runs on the benchmark thread, so the CPU time is that thread's own
+        @TearDown(Level.Iteration)
+        public void endIteration(PhotoFileTransferBenchmark benchmark) {
+            benchmark.cpuNanos.addAndGet(THREADS.getCurrentThreadCpuTime() - cpuAtStart);
+            benchmark.downloads.addAndGet(downloads);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] content = new byte[photoBytes];
+        new Random(42).nextBytes(content);
+        photo = Files.createTempFile("photo-transfer", ".jpg");
+        Files.write(photo, content);
+
+        sink = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0), 256);
+        acceptor = Thread.ofPlatform().daemon().start(() -> {
+            while (sink.isOpen()) {
+                try {
+                    SocketChannel client = sink.accept();
+                    Thread.ofVirtual().start(() -> drain(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        cpuNanos.set(0);
+        downloads.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(BenchmarkParams params) throws IOException {
+        long completed = downloads.get();
+        if (completed > 0) {
+            System.out.printf("%n%s photoBytes=%d: cpu ns/download %d%n",
+                    params.getBenchmark(), photoBytes, cpuNanos.get() / completed);
+        }
+        sink.close();
+        acceptor.interrupt();
+        Files.deleteIfExists(photo);
+    }
+
+    @Benchmark
+    public long streamCopy(Connection connection) throws IOException {
+        long sent = 0;
+        try (InputStream in = Files.newInputStream(photo)) {
+            int read;
+            while ((read = in.read(connection.buffer)) > 0) {
+                connection.socketStream.write(connection.buffer, 0, read);
+                sent += read;
+            }
+        }
+        connection.downloads++;
+        return sent;
+    }
+
+    @Benchmark
+    public long transferTo(Connection connection) throws IOException {
+        long sent = 0;
+        try (FileChannel channel = FileChannel.open(photo, StandardOpenOption.READ)) {
+            long size = channel.size();
+            while (sent < size) {
+                sent += channel.transferTo(sent, size - sent, connection.socket);
+            }
+        }
+        connection.downloads++;
+        return sent;
+    }
+
+    private static void drain(SocketChannel client) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        try (client) {
+            while (client.read(buffer) >= 0) {
+                buffer.clear();
+            }
+        } catch (IOException ignored) {
+            // Connection closed by the benchmark thread
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PhotoFileTransferBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,163 @@
+package com.sliit.goldenpalmresort.benchmark;
+
+import com.sliit.goldenpalmresort.config.JwtAuthenticationFilter;
+import com.sliit.goldenpalmresort.config.SecurityConfig;
+import com.sliit.goldenpalmresort.model.User;
+import com.sliit.goldenpalmresort.service.CustomUserDetailsService;
+import com.sliit.goldenpalmresort.service.JwtService;
+import com.sliit.goldenpalmresort.service.TokenVersions;
+import com.sliit.goldenpalmresort.service.VerifiedTokenCache;
+import jakarta.servlet.Filter;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Requests per second for GET /api/rooms through the real SecurityConfig, with the public
+ * fast path off (every request runs the full chain and the JWT filter, as before) and on.
+ *
+ * The request carries a bearer token, as it does for a signed-in guest browsing rooms, so
+ * the "before" case pays for token verification. The controller is a stub returning a fixed
+ * list, so the difference is the security filter work. Run with {@code mvn test-compile
+ * exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.sliit.goldenpalmresort.benchmark.PublicRouteSecurityBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(8)
+public class PublicRouteSecurityBenchmark {
+
+    private static final String SECRET = "goldenPalmResortSecretKey2024SLIITProjectGroupB1G2";
+
+    // false: single chain for everything (before); true: public fast path (after)
+    @Param({"false", "true"})
+    private boolean fastPath;
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+    private String bearer;
+
+    @RestController
+    public static class StubRoomController {
+
+        @GetMapping("/api/rooms")
+        public List<Map<String, Object>> rooms() {
+            return List.of(Map.of("id", "r1", "roomNumber", "101", "roomType", "Deluxe"));
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    public static class BenchmarkBeans {
+
+        @Bean
+        public static PropertySourcesPlaceholderConfigurer placeholders() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        public StubRoomController stubRoomController() {
+            return new StubRoomController();
+        }
+
+        // jwt.secret and jwt.expiration come from the benchmark property source
+        @Bean
+        public JwtService jwtService() {
+            return new JwtService();
+        }
+
+        @Bean
+        public VerifiedTokenCache verifiedTokenCache() {
+            return new VerifiedTokenCache(10_000, 300_000);
+        }
+
+        @Bean
+        public TokenVersions tokenVersions() {
+            TokenVersions tokenVersions = Mockito.mock(TokenVersions.class);
+            Mockito.when(tokenVersions.isCurrent(Mockito.anyString(), Mockito.anyLong())).thenReturn(true);
+            return tokenVersions;
+        }
+
+        @Bean
+        public CustomUserDetailsService customUserDetailsService() {
+            return Mockito.mock(CustomUserDetailsService.class);
+        }
+
+        @Bean
+        public JwtAuthenticationFilter jwtAuthenticationFilter() {
+            return new JwtAuthenticationFilter();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of("app.security.public-fast-path", String.valueOf(fastPath),
+                        "jwt.secret", SECRET,
+                        "jwt.expiration", "86400000")));
+        context.register(BenchmarkBeans.class, SecurityConfig.class);
+        context.refresh();
+
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+
+        User guest = new User("guest", "guest@example.com", "x", "John", "Doe", User.UserRole.GUEST);
+        guest.setId("user-1");
+        bearer = "Bearer " + context.getBean(JwtService.class).generateToken(guest);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult listRooms() throws Exception {
+        return mockMvc.perform(get("/api/rooms").header("Authorization", bearer)).andReturn();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PublicRouteSecurityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
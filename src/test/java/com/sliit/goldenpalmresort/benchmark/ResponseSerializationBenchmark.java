@@ -0,0 +1,177 @@
+package com.sliit.goldenpalmresort.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sliit.goldenpalmresort.dto.GuestStayRow;
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.Room;
+import com.sliit.goldenpalmresort.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map-per-row responses (what the front desk lists used to build) against typed GuestStayRow
+ * records written through a cached ObjectWriter, with and without Blackbird.
+ *
+ * Each benchmark builds the rows and serializes them, as a request does. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.sliit.goldenpalmresort.benchmark.ResponseSerializationBenchmark};
+ * the GC profiler reports gc.alloc.rate.norm (bytes per operation) next to throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ResponseSerializationBenchmark {
+
+    @Param({"50", "500"})
+    private int rows;
+
+    private final List<Booking> bookings = new ArrayList<>();
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, Room> rooms = new HashMap<>();
+
+    private ObjectMapper plainMapper;
+    private ObjectWriter plainRecordWriter;
+    private ObjectWriter blackbirdRecordWriter;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < rows; i++) {
+            User user = new User();
+            user.setId("u" + i);
+            user.setFirstName("Guest");
+            user.setLastName("Number " + i);
+            user.setEmail("guest" + i + "@example.com");
+            user.setPhone("+94 77 000 " + String.format("%04d", i));
+            users.put(user.getId(), user);
+
+            Room room = new Room();
+            room.setId("r" + i);
+            room.setRoomNumber(String.valueOf(100 + i));
+            room.setRoomType("DELUXE");
+            room.setFloorNumber(1 + i % 5);
+            rooms.put(room.getId(), room);
+
+            Booking booking = new Booking();
+            booking.setBookingReference("GP" + i);
+            booking.setUserId(user.getId());
+            booking.setRoomId(room.getId());
+            booking.setCheckInDate(today.minusDays(i % 3));
+            booking.setCheckOutDate(today.plusDays(2 + i % 4));
+            booking.setGuestCount(2);
+            booking.setTotalAmount(new BigDecimal("45000.00"));
+            booking.setStatus(Booking.BookingStatus.CHECKED_IN);
+            booking.setSpecialRequests("Late check-out");
+            booking.setCreatedAt(LocalDateTime.now().minusDays(7));
+            booking.setUpdatedAt(LocalDateTime.now());
+            bookings.add(booking);
+        }
+
+        plainMapper = mapper(false);
+        plainRecordWriter = plainMapper.writerFor(
+                plainMapper.getTypeFactory().constructCollectionType(List.class, GuestStayRow.class));
+        ObjectMapper blackbirdMapper = mapper(true);
+        blackbirdRecordWriter = blackbirdMapper.writerFor(
+                blackbirdMapper.getTypeFactory().constructCollectionType(List.class, GuestStayRow.class));
+    }
+
+    // Same features Spring Boot applies to the application mapper
+    private static ObjectMapper mapper(boolean blackbird) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public byte[] hashMapRows() throws Exception {
+        List<Map<String, Object>> data = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            User user = users.get(booking.getUserId());
+            Room room = rooms.get(booking.getRoomId());
+            Map<String, Object> guest = new HashMap<>();
+            guest.put("bookingReference", booking.getBookingReference());
+            guest.put("guestName", user.getFirstName() + " " + user.getLastName());
+            guest.put("guestEmail", user.getEmail());
+            guest.put("guestPhone", user.getPhone());
+            guest.put("roomNumber", room.getRoomNumber());
+            guest.put("roomType", room.getRoomType());
+            guest.put("floorNumber", room.getFloorNumber());
+            guest.put("checkInDate", booking.getCheckInDate().toString());
+            guest.put("checkOutDate", booking.getCheckOutDate().toString());
+            guest.put("guestCount", booking.getGuestCount());
+            guest.put("totalAmount", booking.getTotalAmount());
+            guest.put("specialRequests", booking.getSpecialRequests());
+            guest.put("status", booking.getStatus().name());
+            guest.put("createdAt", booking.getCreatedAt().toString());
+            guest.put("updatedAt", booking.getUpdatedAt().toString());
+            long totalDays = ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate());
+            long daysElapsed = ChronoUnit.DAYS.between(booking.getCheckInDate(), LocalDate.now());
+            guest.put("stayDuration", totalDays);
+            guest.put("daysElapsed", daysElapsed);
+            guest.put("remainingDays", Math.max(0, totalDays - daysElapsed));
+            data.add(guest);
+        }
+        // Spring's converter writes an Object-typed value, so the root serializer is looked up per call
+        return plainMapper.writeValueAsBytes(data);
+    }
+
+    @Benchmark
+    public byte[] recordRows() throws Exception {
+        return plainRecordWriter.writeValueAsBytes(records());
+    }
+
+    @Benchmark
+    public byte[] recordRowsBlackbird() throws Exception {
+        return blackbirdRecordWriter.writeValueAsBytes(records());
+    }
+
+    private List<GuestStayRow> records() {
+        List<GuestStayRow> data = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            data.add(GuestStayRow.of(booking, users.get(booking.getUserId()), rooms.get(booking.getRoomId()), true));
+        }
+        return data;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
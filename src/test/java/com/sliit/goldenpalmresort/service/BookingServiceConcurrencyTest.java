@@ -0,0 +1,162 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.sliit.goldenpalmresort.dto.BookingRequest;
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.Room;
+import com.sliit.goldenpalmresort.model.User;
+import com.sliit.goldenpalmresort.repository.BookingRepository;
+import com.sliit.goldenpalmresort.repository.PaymentRepository;
+import com.sliit.goldenpalmresort.repository.RoomRepository;
+import com.sliit.goldenpalmresort.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 300;
+    private static final String ROOM_ID = "room-101";
+
+    private final List<Booking> saved = new CopyOnWriteArrayList<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    private BookingRepository bookingRepository;
+    private RoomRepository roomRepository;
+    private RoomAvailabilityIndex availabilityIndex;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        roomRepository = mock(RoomRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        NightClaimService nightClaims = mock(NightClaimService.class);
+
+        Room room = new Room("101", "Deluxe", 1, new BigDecimal("150.00"), 4);
+        room.setId(ROOM_ID);
+        User guest = new User("guest", "guest@example.com", "x", "John", "Doe", User.UserRole.GUEST);
+        guest.setId("user-1");
+
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(guest));
+        when(roomRepository.findById(any())).thenReturn(Optional.of(room));
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+        when(bookingRepository.findActiveStays(any())).thenReturn(List.of());
+        // Single node under test; the cross-node claim ledger always grants
+        when(nightClaims.claim(anyString(), any(), any(), any())).thenReturn(true);
+
+        // Behaves like the Mongo query, with a pause to widen the check-then-save window
+        when(bookingRepository.findOverlappingBookings(anyString(), any(), any())).thenAnswer(inv -> {
+            LocalDate checkIn = inv.getArgument(1);
+            LocalDate checkOut = inv.getArgument(2);
+            List<Booking> overlapping = new ArrayList<>();
+            for (Booking b : saved) {
+                if (b.getCheckInDate().isBefore(checkOut) && checkIn.isBefore(b.getCheckOutDate())) {
+                    overlapping.add(b);
+                }
+            }
+            Thread.sleep(1);
+            return overlapping;
+        });
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking booking = inv.getArgument(0);
+            booking.setId("booking-" + ids.incrementAndGet());
+            saved.add(booking);
+            return booking;
+        });
+
+        availabilityIndex = new RoomAvailabilityIndex(bookingRepository, roomRepository);
+        UserDirectory userDirectory = new UserDirectory(userRepository, 100, 60_000);
+        bookingService = new BookingService(bookingRepository, roomRepository, userDirectory,
+                paymentRepository, availabilityIndex, new RoomLockStripes(64), nightClaims);
+    }
+
+    @Test
+    void concurrentRequestsForOneRoomNeverOverlap_mongoCheck() throws Exception {
+        hammerOneRoom();
+
+        assertNoOverlaps();
+    }
+
+    @Test
+    void concurrentRequestsForOneRoomNeverOverlap_indexCheck() throws Exception {
+        availabilityIndex.rebuild();
+
+        hammerOneRoom();
+
+        assertNoOverlaps();
+    }
+
+    @Test
+    void stripesAreBoundedAndStablePerRoom() {
+        RoomLockStripes stripes = new RoomLockStripes(50);
+
+        assertEquals(64, stripes.stripeCount());
+        assertSame(stripes.lockFor(ROOM_ID), stripes.lockFor(new String(ROOM_ID)));
+    }
+
+    private void hammerOneRoom() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        LocalDate base = LocalDate.now().plusDays(10);
+
+        for (int i = 0; i < THREADS; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    LocalDate checkIn = base.plusDays(random.nextInt(30));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(3));
+                    BookingRequest request = new BookingRequest(101L, checkIn, checkOut, 2);
+                    bookingService.createBooking(request, "guest");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    // Rejected because the nights were taken; only what reached the repository matters
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "stress run did not finish in time");
+        pool.shutdownNow();
+    }
+
+    private void assertNoOverlaps() {
+        assertTrue(saved.size() > 0, "at least one booking should succeed");
+        for (int i = 0; i < saved.size(); i++) {
+            for (int j = i + 1; j < saved.size(); j++) {
+                Booking a = saved.get(i);
+                Booking b = saved.get(j);
+                boolean overlap = a.getCheckInDate().isBefore(b.getCheckOutDate())
+                        && b.getCheckInDate().isBefore(a.getCheckOutDate());
+                assertFalse(overlap, "double booking: " + a.getCheckInDate() + "-" + a.getCheckOutDate()
+                        + " and " + b.getCheckInDate() + "-" + b.getCheckOutDate());
+            }
+        }
+    }
+}
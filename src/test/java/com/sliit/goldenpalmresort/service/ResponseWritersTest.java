@@ -0,0 +1,61 @@
+package com.sliit.goldenpalmresort.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sliit.goldenpalmresort.dto.GuestStayRow;
+import com.sliit.goldenpalmresort.dto.NotificationView;
+import com.sliit.goldenpalmresort.model.Booking;
+import com.sliit.goldenpalmresort.model.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Pins the JSON the dashboards read from the byte[] endpoints, which Spring can't type-check
+class ResponseWritersTest {
+
+    // Same setup as the application mapper: Boot's ISO dates plus the Blackbird module
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new BlackbirdModule())
+            .build();
+    private final ResponseWriters responseWriters = new ResponseWriters(objectMapper);
+
+    @Test
+    void notificationsKeepTheIsReadKey() throws Exception {
+        NotificationView view = new NotificationView("n-1", Notification.NotificationType.GENERAL, "Title", "Message",
+                null, null, true, LocalDateTime.of(2024, 5, 1, 9, 30), null, "system");
+
+        JsonNode row = objectMapper.readTree(responseWriters.writeList(List.of(view), NotificationView.class)).get(0);
+
+        assertTrue(row.get("isRead").asBoolean());
+        assertFalse(row.has("read"));
+        assertEquals("GENERAL", row.get("type").asText());
+        assertEquals("2024-05-01T09:30:00", row.get("createdAt").asText());
+        assertTrue(row.get("readAt").isNull());
+    }
+
+    @Test
+    void guestStayRowsWriteUnknownFloorAsNullAndOmitInHouseFieldsOtherwise() throws Exception {
+        Booking booking = new Booking("user-1", "room-1", LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 4), 2);
+        GuestStayRow stay = GuestStayRow.of(booking, null, null, false);
+
+        JsonNode row = objectMapper.readTree(responseWriters.writeList(List.of(stay), GuestStayRow.class)).get(0);
+
+        assertTrue(row.has("floorNumber"));
+        assertTrue(row.get("floorNumber").isNull());
+        assertEquals("Unknown Guest", row.get("guestName").asText());
+        assertEquals("2024-05-01", row.get("checkInDate").asText());
+        assertEquals(3, row.get("stayDuration").asLong());
+        assertFalse(row.has("daysElapsed"));
+        assertFalse(row.has("remainingDays"));
+    }
+}